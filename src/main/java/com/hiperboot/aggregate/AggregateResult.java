@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.aggregate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+// Column names once, then one list of values per group, in the column order.
+@Getter
+public class AggregateResult {
+    private final List<String> columns;
+    private final List<List<Object>> rows;
+
+    public AggregateResult(List<String> columns, List<List<Object>> rows) {
+        this.columns = List.copyOf(columns);
+        this.rows = rows;
+    }
+
+    public List<Map<String, Object>> toMaps() {
+        final var maps = new ArrayList<Map<String, Object>>(rows.size());
+        for (final var row : rows) {
+            final var map = new LinkedHashMap<String, Object>();
+            for (int i = 0; i < columns.size(); i++) {
+                map.put(columns.get(i), row.get(i));
+            }
+            maps.add(map);
+        }
+        return maps;
+    }
+}
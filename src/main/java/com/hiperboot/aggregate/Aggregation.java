@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.aggregate;
+
+import static com.hiperboot.db.filter.DbFilterBuilder.AGGREGATE_PAR;
+import static com.hiperboot.projection.FieldProjection.toPaths;
+import static com.hiperboot.projection.FieldProjection.validatePath;
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.util.ClassUtils;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+// The _aggregate section: "groupBy" lists the grouping paths, each function key lists the fields it applies to.
+// "count": true counts rows.
+@Log4j2
+@Getter
+public class Aggregation {
+    public static final String GROUP_BY = "groupBy";
+
+    private final List<String> groupBy;
+    private final List<Measure> measures;
+
+    public Aggregation(Class<?> entity, List<String> groupBy, List<Measure> measures) {
+        if (isNull(measures) || measures.isEmpty()) {
+            log.error("An aggregation requires at least one measure");
+            throw new IllegalArgumentException("An aggregation requires at least one measure");
+        }
+        groupBy.forEach(path -> validatePath(entity, path));
+        measures.stream().filter(measure -> !isNull(measure.getField())).forEach(measure -> validateMeasure(entity, measure));
+        this.groupBy = List.copyOf(groupBy);
+        this.measures = List.copyOf(measures);
+    }
+
+    public static boolean hasAggregation(Map<String, Object> filters) {
+        return !isNull(filters) && filters.get(AGGREGATE_PAR) instanceof Map<?, ?>;
+    }
+
+    public static Aggregation of(Class<?> entity, Map<String, Object> filters) {
+        if (!hasAggregation(filters)) {
+            log.error("An aggregation requires the {} section", AGGREGATE_PAR);
+            throw new IllegalArgumentException("An aggregation requires the " + AGGREGATE_PAR + " section");
+        }
+        final var section = (Map<?, ?>) filters.get(AGGREGATE_PAR);
+        final var groupBy = isNull(section.get(GROUP_BY)) ? List.<String>of() : toPaths(GROUP_BY, section.get(GROUP_BY));
+        final var measures = new ArrayList<Measure>();
+        section.forEach((key, value) -> {
+            if (GROUP_BY.equals(key)) {
+                return;
+            }
+            final var function = getFunction(key.toString());
+            if (function == AggregateFunction.COUNT && (Boolean.TRUE.equals(value) || "*".equals(value))) {
+                measures.add(new Measure(function, null));
+            }
+            else if (!Boolean.FALSE.equals(value)) {
+                toPaths(key.toString(), value).forEach(field -> measures.add(new Measure(function, field)));
+            }
+        });
+        return new Aggregation(entity, groupBy, measures);
+    }
+
+    public List<String> getColumns() {
+        final var columns = new ArrayList<>(groupBy);
+        measures.forEach(measure -> columns.add(measure.getName()));
+        return columns;
+    }
+
+    private static AggregateFunction getFunction(String key) {
+        try {
+            return AggregateFunction.valueOf(key.toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e) {
+            log.error("Unknown aggregate function {}", key);
+            throw new IllegalArgumentException("Unknown aggregate function " + key);
+        }
+    }
+
+    private static void validateMeasure(Class<?> entity, Measure measure) {
+        final var type = ClassUtils.resolvePrimitiveIfNecessary(validatePath(entity, measure.getField()));
+        final var valid = switch (measure.getFunction()) {
+            case SUM, AVG -> Number.class.isAssignableFrom(type);
+            case MIN, MAX -> Comparable.class.isAssignableFrom(type);
+            case COUNT -> true;
+        };
+        if (!valid) {
+            log.error("{} can not be applied to {}", measure.getFunction(), measure.getField());
+            throw new IllegalArgumentException(measure.getFunction() + " can not be applied to " + measure.getField());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.aggregate;
+
+import static java.util.Objects.isNull;
+
+import java.util.Locale;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+// A function over a field, count without a field counts the rows.
+@Getter
+@EqualsAndHashCode
+@ToString
+public class Measure {
+    private final AggregateFunction function;
+    private final String field;
+
+    public Measure(AggregateFunction function, String field) {
+        this.function = function;
+        this.field = field;
+    }
+
+    public String getName() {
+        final var name = function.name().toLowerCase(Locale.ROOT);
+        return isNull(field) ? name : name + "(" + field + ")";
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.domain;
+
+import java.io.Serial;
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@EqualsAndHashCode(callSuper = true)
+public class CountedPageImpl<T> extends PageImpl<T> {
+    @Serial
+    private static final long serialVersionUID = 7135842290167375418L;
+
+    @Getter
+    private final boolean exactTotal;
+    private final boolean next;
+
+    public CountedPageImpl(List<T> content, Pageable pageable, long total, boolean exactTotal, boolean next) {
+        super(content, pageable, total);
+        this.exactTotal = exactTotal;
+        this.next = next;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.domain;
+
+import static java.util.Objects.nonNull;
+
+import lombok.Getter;
+
+@Getter
+public class KeysetPagination implements Pagination {
+
+    private final Integer pageSize;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public KeysetPagination(Integer pageSize, String nextCursor, String previousCursor) {
+        super();
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    @Override
+    public Integer getCurrentPage() {
+        return null;
+    }
+
+    @Override
+    public Integer getTotalPages() {
+        return null;
+    }
+
+    @Override
+    public Long getTotalRows() {
+        return null;
+    }
+
+    public boolean hasNext() {
+        return nonNull(nextCursor);
+    }
+
+    public boolean hasPrevious() {
+        return nonNull(previousCursor);
+    }
+}
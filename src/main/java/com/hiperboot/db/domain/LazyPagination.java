@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.domain;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Slice;
+
+import com.hiperboot.pagination.count.RowCount;
+
+import lombok.Getter;
+
+// Totals are only counted when one of the total getters is first called, then kept for later calls.
+@Getter
+public class LazyPagination implements Pagination {
+
+    private final Integer currentPage;
+    private final Integer pageSize;
+
+    @Getter(PRIVATE)
+    private final Slice<?> page;
+    @Getter(PRIVATE)
+    private final Supplier<RowCount> rowCountSupplier;
+    @Getter(PRIVATE)
+    private RowCount rowCount;
+
+    public LazyPagination(Slice<?> page, Supplier<RowCount> rowCountSupplier) {
+        super();
+        this.page = page;
+        this.rowCountSupplier = rowCountSupplier;
+        this.currentPage = page.getNumber() + 1;
+        this.pageSize = page.getSize();
+    }
+
+    @Override
+    public Integer getTotalPages() {
+        return pageSize == 0 ? 1 : (int) Math.ceil((double) getTotalRows() / (double) pageSize);
+    }
+
+    @Override
+    public Long getTotalRows() {
+        return computeRowCount().getValue();
+    }
+
+    @Override
+    public Boolean getTotalExact() {
+        return computeRowCount().isExact();
+    }
+
+    public synchronized boolean hasComputedTotals() {
+        return nonNull(rowCount);
+    }
+
+    public boolean hasNext() {
+        return this.page.hasNext();
+    }
+
+    public boolean hasPrevious() {
+        return page.getNumber() > 0;
+    }
+
+    public boolean isFirst() {
+        return !hasPrevious();
+    }
+
+    public boolean isLast() {
+        return !hasNext();
+    }
+
+    private synchronized RowCount computeRowCount() {
+        if (isNull(rowCount)) {
+            rowCount = rowCountSupplier.get();
+        }
+        return rowCount;
+    }
+}
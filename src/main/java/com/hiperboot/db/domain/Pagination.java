@@ -23,4 +23,16 @@ public interface Pagination {
     Integer getPageSize();
 
     Long getTotalRows();
+
+    default Boolean getTotalExact() {
+        return null;
+    }
+
+    default String getNextCursor() {
+        return null;
+    }
+
+    default String getPreviousCursor() {
+        return null;
+    }
 }
@@ -18,6 +18,7 @@ package com.hiperboot.db.domain;
 import static lombok.AccessLevel.PRIVATE;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import lombok.Getter;
 
@@ -28,21 +29,30 @@ public class PaginationImpl implements Pagination {
     private final Integer totalPages;
     private final Integer pageSize;
     private final Long totalRows;
+    private final Boolean totalExact;
 
     @Getter(PRIVATE)
-    private final Page<?> page;
+    private final Slice<?> page;
 
-    public PaginationImpl(Page<?> page) {
+    public PaginationImpl(Slice<?> page) {
         super();
         this.page = page;
         this.currentPage = page.getNumber() + 1;
-        this.totalPages = page.getTotalPages();
         this.pageSize = page.getSize();
-        this.totalRows = page.getTotalElements();
+        if (page instanceof Page<?> fullPage) {
+            this.totalPages = fullPage.getTotalPages();
+            this.totalRows = fullPage.getTotalElements();
+            this.totalExact = !(page instanceof CountedPageImpl<?> countedPage) || countedPage.isExactTotal();
+        }
+        else {
+            this.totalPages = null;
+            this.totalRows = null;
+            this.totalExact = null;
+        }
     }
 
     public boolean hasNext() {
-        return this.page.getNumber() + 1 < this.page.getTotalPages();
+        return this.page.hasNext();
     }
 
     public boolean hasPrevious() {
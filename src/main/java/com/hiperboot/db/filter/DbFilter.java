@@ -15,25 +15,25 @@
  */
 package com.hiperboot.db.filter;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
+import lombok.ToString;
 
-@Data
 @Getter
-@Setter
-@Builder
-public class DbFilter {
-    private String field;
-    private QueryOperator operator;
-    private Object value;
-    private ArrayList<?> values;
-    private boolean entity;
-    private Class<?> type;
-    private Class<?> originalClass;
-    private LogicalOperator logicalOperator;
-    private LogicalOperator wrappedLogicalOperator;
+@ToString
+@EqualsAndHashCode
+@Builder(toBuilder = true)
+public final class DbFilter implements FilterExpression {
+    private final String field;
+    private final QueryOperator operator;
+    private final Object value;
+    private final List<?> values;
+    private final boolean entity;
+    private final Class<?> type;
+    private final Class<?> originalClass;
+    private final LogicalOperator logicalOperator;
+    private final LogicalOperator wrappedLogicalOperator;
 }
@@ -16,24 +16,25 @@
 package com.hiperboot.db.filter;
 
 import static com.hiperboot.db.filter.LogicalOperator.NOT;
+import static com.hiperboot.db.metadata.EntityMetadataRegistry.getEntityMetadata;
 import static com.hiperboot.util.StringUtils.isLikeString;
 import static com.hiperboot.util.StringUtils.toCamelCase;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-
-import org.springframework.data.util.Pair;
 
+import com.hiperboot.db.metadata.AttributeMetadata;
+import com.hiperboot.db.metadata.EntityMetadata;
+import com.hiperboot.db.metadata.EntityMetadataRegistry;
+import com.hiperboot.exception.HiperBootException;
 import com.hiperboot.exception.WrongFilterException;
 import com.hiperboot.pagination.PageRequestBuilder;
 
@@ -45,6 +46,93 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class DbFilterBuilder {
+    public static final String AND_PAR = "_and";
+    public static final String OR_PAR = "_or";
+    public static final String NOT_PAR = "_not";
+    public static final String FIELDS_PAR = "_fields";
+    public static final String AGGREGATE_PAR = "_aggregate";
+
+    public static FilterExpression getFilterExpression(Class<?> clazz, final Map<String, Object> mapFilter) {
+        if (isNull(mapFilter) || mapFilter.isEmpty()) {
+            return null;
+        }
+        final var errorList = new ArrayList<String>();
+        final var metadata = getEntityMetadata(clazz);
+        final var expression = parseExpression(mapFilter, (key, value, logicalWrapper) -> {
+            final var template = resolveFilter(metadata, key, value, LogicalOperator.AND, logicalWrapper);
+            if (isNull(template)) {
+                errorList.add(toCamelCase(key));
+                return null;
+            }
+            return bindValue(template, value);
+        });
+
+        if (!errorList.isEmpty()) {
+            throw new WrongFilterException(clazz, errorList);
+        }
+        return expression;
+    }
+
+    private static FilterExpression parseExpression(Map<?, ?> mapFilter, FilterItemBuilder itemBuilder) {
+        final var children = new ArrayList<FilterExpression>();
+
+        mapFilter.forEach((mapKey, filterValue) -> {
+            final var key = String.valueOf(mapKey);
+            if (isPageParameter(key)) {
+                log.debug("Empty _page was sent as filter");
+            }
+            else if (isProjectionParameter(key)) {
+                log.debug("{} is a projection, not a filter", key);
+            }
+            else if (isNotOperator(key)) {
+                extractWrapList(mapFilter, key).forEach((wrappedKey, wrappedValue) ->
+                        addFilterItem(children, itemBuilder.build(wrappedKey, wrappedValue, NOT)));
+            }
+            else if (OR_PAR.equals(key)) {
+                children.add(FilterGroup.or(parseGroupItems(key, filterValue, itemBuilder)));
+            }
+            else if (AND_PAR.equals(key)) {
+                children.add(FilterGroup.and(parseGroupItems(key, filterValue, itemBuilder)));
+            }
+            else if (NOT_PAR.equals(key)) {
+                children.add(FilterGroup.not(FilterGroup.and(parseGroupItems(key, filterValue, itemBuilder))));
+            }
+            else {
+                addFilterItem(children, itemBuilder.build(key, filterValue, null));
+            }
+        });
+
+        return FilterGroup.and(children);
+    }
+
+    private static List<FilterExpression> parseGroupItems(String key, Object groupValue, FilterItemBuilder itemBuilder) {
+        final var items = new ArrayList<FilterExpression>();
+        if (groupValue instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                if (!(item instanceof Map<?, ?> itemMap)) {
+                    log.warn("Items of {} must be filter objects", key);
+                    throw new HiperBootException("Items of " + key + " must be filter objects");
+                }
+                items.add(parseExpression(itemMap, itemBuilder));
+            }
+        }
+        else if (groupValue instanceof Map<?, ?> map) {
+            map.forEach((itemKey, itemValue) ->
+                    items.add(parseExpression(Collections.singletonMap(itemKey, itemValue), itemBuilder)));
+        }
+        else {
+            log.warn("{} must be a list or a filter object", key);
+            throw new HiperBootException(key + " must be a list or a filter object");
+        }
+        return items;
+    }
+
+    private static void addFilterItem(List<FilterExpression> children, DbFilter filter) {
+        if (nonNull(filter)) {
+            children.add(filter);
+        }
+    }
+
     public static List<DbFilter> getDbFilters(Class<?> clazz, final Map<String, Object> mapFilter) {
         return getDbFilters(clazz, mapFilter, LogicalOperator.AND);
     }
@@ -54,7 +142,7 @@ public final class DbFilterBuilder {
             return new ArrayList<>();
         }
         final var errorList = new ArrayList<String>();
-        final var filters = buildFilter(mapFilter, errorList, getFieldList(clazz), logicalOperator, clazz);
+        final var filters = buildFilter(mapFilter, errorList, getEntityMetadata(clazz), logicalOperator);
 
         if (!errorList.isEmpty()) {
             throw new WrongFilterException(clazz, errorList);
@@ -62,13 +150,12 @@ public final class DbFilterBuilder {
         return filters;
     }
 
-    public static List<DbFilter> buildFilter(Map<String, Object> mapFilter, List<String> errorList, Map<String, Object> fieldList,
-            Class<?> clazz) {
-        return buildFilter(mapFilter, errorList, fieldList, LogicalOperator.AND, clazz);
+    public static List<DbFilter> buildFilter(Map<String, Object> mapFilter, List<String> errorList, EntityMetadata metadata) {
+        return buildFilter(mapFilter, errorList, metadata, LogicalOperator.AND);
     }
 
-    static List<DbFilter> buildFilter(Map<String, Object> mapFilter, List<String> errorList, Map<String, Object> fieldList,
-            LogicalOperator logicalOperator, Class<?> clazz) {
+    static List<DbFilter> buildFilter(Map<String, Object> mapFilter, List<String> errorList, EntityMetadata metadata,
+            LogicalOperator logicalOperator) {
         ArrayList<DbFilter> filters = new ArrayList<>();
 
         mapFilter.forEach((key, filterValue) -> {
@@ -76,38 +163,45 @@ public final class DbFilterBuilder {
                 log.debug("Empty _page was sent as filter");
                 return;
             }
+            if (isProjectionParameter(key)) {
+                return;
+            }
 
             if (isNotOperator(key)) {
-                processNotOperator(mapFilter, key, errorList, fieldList, logicalOperator, filters, clazz);
+                processNotOperator(mapFilter, key, errorList, metadata, logicalOperator, filters);
             }
             else {
-                processFilterItem(errorList, fieldList, logicalOperator, filters, key, filterValue, null, clazz);
+                processFilterItem(errorList, metadata, logicalOperator, filters, key, filterValue, null);
             }
         });
 
         return filters;
     }
 
-    private static boolean isPageParameter(String key) {
+    static boolean isPageParameter(String key) {
         return PageRequestBuilder.PAGE_PAR.equals(key);
     }
 
-    private static boolean isNotOperator(String key) {
+    static boolean isProjectionParameter(String key) {
+        return FIELDS_PAR.equals(key) || AGGREGATE_PAR.equals(key);
+    }
+
+    static boolean isNotOperator(String key) {
         return key.equalsIgnoreCase("NOT");
     }
 
     private static void processNotOperator(Map<String, Object> mapFilter, String key, List<String> errorList,
-            Map<String, Object> fieldList, LogicalOperator logicalOperator,
-            ArrayList<DbFilter> filters, Class<?> clazz) {
+            EntityMetadata metadata, LogicalOperator logicalOperator,
+            ArrayList<DbFilter> filters) {
         LogicalOperator logicalWrapper = NOT;
         Map<String, Object> wrapList = extractWrapList(mapFilter, key);
 
         wrapList.forEach((oKey, value) ->
-                processFilterItem(errorList, fieldList, logicalOperator, filters, oKey, value, logicalWrapper, clazz)
+                processFilterItem(errorList, metadata, logicalOperator, filters, oKey, value, logicalWrapper)
         );
     }
 
-    private static Map<String, Object> extractWrapList(Map<String, Object> mapFilter, String key) {
+    static Map<String, Object> extractWrapList(Map<?, ?> mapFilter, String key) {
         Map<String, Object> wrapList = new LinkedHashMap<>();
         if (mapFilter.get(key) instanceof Map) {
             ((Map<?, ?>) mapFilter.get(key)).forEach((entryKey, entryValue) ->
@@ -117,171 +211,129 @@ public final class DbFilterBuilder {
         return wrapList;
     }
 
-    private static void processFilterItem(List<String> errorList, Map<String, Object> fieldList, LogicalOperator logicalOperator,
-            ArrayList<DbFilter> filters, String key, Object filterValue, LogicalOperator logicalWrapper, Class<?> clazz) {
+    private static void processFilterItem(List<String> errorList, EntityMetadata metadata, LogicalOperator logicalOperator,
+            ArrayList<DbFilter> filters, String key, Object filterValue, LogicalOperator logicalWrapper) {
+        final var template = resolveFilter(metadata, key, filterValue, logicalOperator, logicalWrapper);
+        if (isNull(template)) {
+            errorList.add(toCamelCase(key));
+            return;
+        }
+        filters.add(bindValue(template, filterValue));
+    }
+
+    private static DbFilter resolveFilter(EntityMetadata metadata, String key, Object filterValue, LogicalOperator logicalOperator,
+            LogicalOperator logicalWrapper) {
         key = toCamelCase(key);
         log.trace("Filter attributes: {} : {}", key, filterValue);
-        if (isNull(fieldList.get(key))) {
-            errorList.add(key);
-            return;
+        final var attribute = metadata.getAttribute(key);
+        if (isNull(attribute)) {
+            return null;
         }
-        final var filter = DbFilter.builder()
+        return DbFilter.builder()
                 .field(key)
-                .operator(identifyOperator(filterValue))
-                .entity(isFieldEntity(fieldList.get(key)))
-                .type(getFieldType(fieldList, key))
-                .value(filterValue)
+                .operator(identifyOperator(attribute, filterValue))
+                .entity(attribute.isAssociation())
+                .type(getFieldType(attribute))
                 .logicalOperator(logicalOperator)
                 .wrappedLogicalOperator(logicalWrapper)
-                .originalClass(clazz)
+                .originalClass(metadata.getJavaType())
                 .build();
+    }
 
-        var className = fieldList.get(key).toString();
-
-        if (filter.isEntity() || hasAnnotation(className, Entity.class)) {
-            filter.setOperator(isCollectionInterface(className) && isNull(filterValue) ? QueryOperator.EMPTY : QueryOperator.JOIN);
-        }
-
-        if (!filter.isEntity() && isFieldEntity(filterValue) && !hasAnnotation(className, Entity.class)) {
-            filter.setOperator(QueryOperator.IN);
-            filter.setValue(null);
-            var listValues = convertToList(filter, filterValue);
-            filter.setValues(listValues);
-        }
-        else if (filterValue instanceof LinkedHashMap map) {
-            betweenFilter(map, filter);
+    private static DbFilter bindValue(DbFilter template, Object filterValue) {
+        final var filter = template.toBuilder().value(filterValue);
+        switch (template.getOperator()) {
+            case IN -> filter.value(null).values(convertToList(template, filterValue));
+            case BETWEEN, GREATER_THAN, LESS_THAN -> {
+                var range = (Map<?, ?>) filterValue;
+                filter.values(Arrays.asList(range.get("from"), range.get("to")));
+            }
+            default -> log.trace("No value conversion needed for operator {}", template.getOperator());
         }
-        filters.add(filter);
+        return filter.build();
     }
 
-    private static ArrayList<?> convertToList(DbFilter filter, Object value) {
+    private static List<?> convertToList(DbFilter filter, Object value) {
         if (isNull(value)) {
             return new ArrayList<>();
         }
-        ArrayList<String> converted;
-        if (value instanceof Map map) {
-            converted = new ArrayList<>(map.values());
-        }
-        else {
-            List<String> immutableList = (List<String>) value;
-            if (String.class.isAssignableFrom(filter.getType())) {
-                converted = new ArrayList<>();
-                immutableList.forEach(s -> converted.add(s.toUpperCase()));
-            }
-            else {
-                converted = new ArrayList<>(immutableList);
-            }
+        if (value instanceof Map<?, ?> map) {
+            return new ArrayList<>(map.values());
         }
-
-        if (!((List<?>) converted).isEmpty() && ((((ArrayList<?>) converted).get(0).getClass()).getTypeName()).equals(
-                "java.lang.Integer")) {
-            return (ArrayList<?>) converted.stream().map(Long::valueOf).toList();
+        if (String.class.isAssignableFrom(filter.getType())) {
+            return ((Collection<?>) value).stream().map(item -> isNull(item) ? null : item.toString().toUpperCase()).toList();
         }
-        return converted;
+        return new ArrayList<>((Collection<?>) value);
     }
 
-    private static QueryOperator identifyOperator(Object value) {
+    private static QueryOperator identifyOperator(AttributeMetadata attribute, Object value) {
+        if (attribute.isAssociation()) {
+            return attribute.isCollection() && isNull(value) ? QueryOperator.EMPTY : QueryOperator.JOIN;
+        }
+        if (isMultiValue(value)) {
+            return QueryOperator.IN;
+        }
+        if (value instanceof Map<?, ?> map && (nonNull(map.get("from")) || nonNull(map.get("to")))) {
+            return getRangeOperator(map.get("from"), map.get("to"));
+        }
         if (isNull(value)) {
             return QueryOperator.EQUALS;
         }
         return isLikeString(value.toString()) ? QueryOperator.LIKE : QueryOperator.EQUALS;
     }
 
-    private static Class<?> getFieldType(Map<String, Object> fieldList, String key) {
-        return isFieldEntity(fieldList.get(key)) ? List.class : (Class<?>) fieldList.get(key);
+    private static Class<?> getFieldType(AttributeMetadata attribute) {
+        return attribute.isAssociation() ? List.class : attribute.getJavaType();
     }
 
-    private static boolean isFieldEntity(Object field) {
-        if (field instanceof Map map && (map.containsKey("from") || map.containsKey("to"))) {
+    private static boolean isMultiValue(Object value) {
+        if (value instanceof Map map && (map.containsKey("from") || map.containsKey("to"))) {
             return false;
         }
-        return field instanceof Collection || field instanceof Map || (field instanceof Class<?> clazz && (
-                clazz.isAssignableFrom(List.class) || clazz.isAssignableFrom(Set.class)));
+        return value instanceof Collection || value instanceof Map;
     }
 
-    private static void betweenFilter(LinkedHashMap value, DbFilter filter) {
-        var from = value.get("from");
-        var to = value.get("to");
-        if (nonNull(from) || nonNull(to)) {
-            filter.setValues(new ArrayList<>(Arrays.asList(from, to)));
-            filter.setOperator(QueryOperator.BETWEEN);
-            if (isNull(from)) {
-                filter.setOperator(QueryOperator.LESS_THAN);
-            }
-            else if (isNull(to)) {
-                filter.setOperator(QueryOperator.GREATER_THAN);
-            }
+    private static QueryOperator getRangeOperator(Object from, Object to) {
+        if (isNull(from)) {
+            return QueryOperator.LESS_THAN;
         }
+        return isNull(to) ? QueryOperator.GREATER_THAN : QueryOperator.BETWEEN;
     }
 
-    private static HashMap<String, Object> getFieldList(Class<?> clazz) {
-        HashMap<String, Object> fieldsMap = new HashMap<>();
-        List<Class<?>> classHierarchy = getClassHierarchy(clazz);
-
-        for (Class<?> currentClass : classHierarchy) {
-            for (Field field : currentClass.getDeclaredFields()) {
-                if (field.getType().isAnnotationPresent(Entity.class)) {
-                    List<Pair<String, Class<?>>> nestedFields = getNestedFields(field);
-                    fieldsMap.put(field.getName(), nestedFields);
-                }
-                else {
-                    Class<?> fieldType = adjustFieldType(field, clazz);
-                    fieldsMap.put(field.getName(), fieldType);
-                }
-            }
-        }
-        return fieldsMap;
+    // Filters are resolved from EntityMetadataRegistry now. These take the Class.toString() of a type, as before.
+    @Deprecated
+    public static boolean isCollectionInterface(String className) {
+        final var clazz = forName(className);
+        return nonNull(clazz) && clazz.isInterface() && EntityMetadataRegistry.isCollectionType(clazz);
     }
 
-    private static List<Class<?>> getClassHierarchy(Class<?> clazz) {
-        List<Class<?>> classes = new ArrayList<>();
-        Class<?> currentClass = clazz;
-        while (currentClass != null && !currentClass.equals(Object.class)) {
-            classes.add(currentClass);
-            currentClass = currentClass.getSuperclass();
+    @Deprecated
+    public static boolean hasAnnotation(String className, Class<? extends Annotation> annotationClass) {
+        final var clazz = forName(className);
+        if (isNull(clazz)) {
+            return false;
         }
-        return classes;
+        return annotationClass == Entity.class ? EntityMetadataRegistry.isEntity(clazz) : clazz.isAnnotationPresent(annotationClass);
     }
 
-    private static List<Pair<String, Class<?>>> getNestedFields(Field field) {
-        List<Pair<String, Class<?>>> nestedFields = new ArrayList<>();
-        for (Field nestedField : field.getType().getDeclaredFields()) {
-            nestedFields.add(Pair.of(nestedField.getName(), nestedField.getType()));
+    private static Class<?> forName(String className) {
+        if (className.startsWith("class ")) {
+            className = className.substring("class ".length());
         }
-        return nestedFields;
-    }
-
-    private static Class<?> adjustFieldType(Field field, Class<?> clazz) {
-        if (field.getType().toString().contains(clazz.getCanonicalName())) {
-            return field.getType().getSuperclass();
+        if (className.startsWith("interface ")) {
+            className = className.substring("interface ".length());
         }
-        return field.getType();
-    }
-
-    public static boolean isCollectionInterface(String className) {
         try {
-            Class<?> clazz = Class.forName(className.substring("interface ".length()));
-            return Collection.class.isAssignableFrom(clazz) && clazz.isInterface();
+            return Class.forName(className);
         }
         catch (ClassNotFoundException e) {
-            return false;
+            log.info("ClassNotFoundException {} in forName.", className);
+            return null;
         }
     }
 
-    public static boolean hasAnnotation(String className, Class<? extends Annotation> annotationClass) {
-        try {
-            if (className.startsWith("class ")) {
-                className = className.substring(6);
-            }
-            if (className.startsWith("interface ")) {
-                className = className.substring(10);
-            }
-            Class<?> cls = Class.forName(className);
-            return cls.isAnnotationPresent(annotationClass);
-        }
-        catch (ClassNotFoundException e) {
-            log.info("ClassNotFoundException {} in hasAnnotation.", className);
-            return false;
-        }
+    @FunctionalInterface
+    private interface FilterItemBuilder {
+        DbFilter build(String key, Object value, LogicalOperator logicalWrapper);
     }
 }
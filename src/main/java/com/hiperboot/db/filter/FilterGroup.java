@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.filter;
+
+import static com.hiperboot.db.filter.LogicalOperator.AND;
+import static com.hiperboot.db.filter.LogicalOperator.NOT;
+import static com.hiperboot.db.filter.LogicalOperator.OR;
+
+import java.util.List;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class FilterGroup implements FilterExpression {
+    public static final FilterGroup TRUE = new FilterGroup(AND, List.of());
+    public static final FilterGroup FALSE = new FilterGroup(OR, List.of());
+
+    private final LogicalOperator operator;
+    private final List<FilterExpression> children;
+
+    private FilterGroup(LogicalOperator operator, List<? extends FilterExpression> children) {
+        this.operator = operator;
+        this.children = List.copyOf(children);
+    }
+
+    public static FilterExpression and(List<? extends FilterExpression> children) {
+        return children.size() == 1 ? children.get(0) : new FilterGroup(AND, children);
+    }
+
+    public static FilterExpression or(List<? extends FilterExpression> children) {
+        return children.size() == 1 ? children.get(0) : new FilterGroup(OR, children);
+    }
+
+    public static FilterExpression not(FilterExpression child) {
+        return new FilterGroup(NOT, List.of(child));
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.filter;
+
+import static com.hiperboot.db.filter.FilterGroup.FALSE;
+import static com.hiperboot.db.filter.FilterGroup.TRUE;
+import static com.hiperboot.db.filter.LogicalOperator.AND;
+import static com.hiperboot.db.filter.LogicalOperator.OR;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.hiperboot.db.filter.casting.TypeCasterFactory;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FilterOptimizer {
+
+    public static FilterExpression optimize(FilterExpression expression) {
+        return isNull(expression) ? null : optimize(expression, false);
+    }
+
+    public static boolean isContradiction(FilterExpression expression) {
+        return FALSE.equals(expression);
+    }
+
+    // Inside an odd number of NOTs a contradiction may still evaluate to UNKNOWN for null columns,
+    // so only rewrites that are equivalent in three-valued logic are applied there.
+    private static FilterExpression optimize(FilterExpression expression, boolean negated) {
+        if (expression instanceof DbFilter filter) {
+            return !negated && isContradiction(filter) ? FALSE : filter;
+        }
+        final var group = (FilterGroup) expression;
+        return switch (group.getOperator()) {
+            case AND -> optimizeAnd(group.getChildren(), negated);
+            case OR -> optimizeOr(group.getChildren(), negated);
+            case NOT -> optimizeNot(group.getChildren().get(0), negated);
+        };
+    }
+
+    private static FilterExpression optimizeNot(FilterExpression child, boolean negated) {
+        final var optimized = optimize(child, !negated);
+        if (TRUE.equals(optimized)) {
+            return FALSE;
+        }
+        return FALSE.equals(optimized) ? TRUE : FilterGroup.not(optimized);
+    }
+
+    private static FilterExpression optimizeAnd(List<FilterExpression> children, boolean negated) {
+        final var optimized = new LinkedHashSet<FilterExpression>();
+        for (FilterExpression child : children) {
+            final var optimizedChild = optimize(child, negated);
+            if (FALSE.equals(optimizedChild)) {
+                return FALSE;
+            }
+            if (optimizedChild instanceof FilterGroup group && AND.equals(group.getOperator())) {
+                optimized.addAll(group.getChildren());
+            }
+            else {
+                optimized.add(optimizedChild);
+            }
+        }
+        if (negated) {
+            return FilterGroup.and(new ArrayList<>(optimized));
+        }
+        final var intersected = intersectByField(optimized);
+        return isNull(intersected) ? FALSE : FilterGroup.and(intersected);
+    }
+
+    private static FilterExpression optimizeOr(List<FilterExpression> children, boolean negated) {
+        final var optimized = new LinkedHashSet<FilterExpression>();
+        for (FilterExpression child : children) {
+            final var optimizedChild = optimize(child, negated);
+            if (TRUE.equals(optimizedChild)) {
+                return TRUE;
+            }
+            if (optimizedChild instanceof FilterGroup group && OR.equals(group.getOperator())) {
+                optimized.addAll(group.getChildren());
+            }
+            else {
+                optimized.add(optimizedChild);
+            }
+        }
+        return FilterGroup.or(mergeEqualsIntoIn(optimized));
+    }
+
+    private static List<FilterExpression> mergeEqualsIntoIn(Set<FilterExpression> children) {
+        final var merged = new ArrayList<FilterExpression>();
+        final var valuesByField = new LinkedHashMap<String, List<Object>>();
+        final var templateByField = new LinkedHashMap<String, DbFilter>();
+
+        for (FilterExpression child : children) {
+            if (child instanceof DbFilter filter && isMergeableIntoIn(filter)) {
+                final var values = valuesByField.computeIfAbsent(filter.getField(), field -> new ArrayList<>());
+                templateByField.putIfAbsent(filter.getField(), filter);
+                if (QueryOperator.EQUALS.equals(filter.getOperator())) {
+                    values.add(normalizeInValue(filter, filter.getValue()));
+                }
+                else {
+                    filter.getValues().forEach(value -> values.add(normalizeInValue(filter, value)));
+                }
+            }
+            else {
+                merged.add(child);
+            }
+        }
+
+        valuesByField.forEach((field, values) -> {
+            final var template = templateByField.get(field);
+            final var distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+            if (distinctValues.size() == 1 && QueryOperator.EQUALS.equals(template.getOperator())) {
+                merged.add(template);
+            }
+            else {
+                merged.add(template.toBuilder().operator(QueryOperator.IN).value(null).values(distinctValues).build());
+            }
+        });
+        return merged;
+    }
+
+    private static List<FilterExpression> intersectByField(Set<FilterExpression> children) {
+        final var result = new ArrayList<FilterExpression>();
+        final var filtersByField = new LinkedHashMap<String, List<DbFilter>>();
+
+        for (FilterExpression child : children) {
+            if (child instanceof DbFilter filter && isIntersectable(filter)) {
+                filtersByField.computeIfAbsent(filter.getField(), field -> new ArrayList<>()).add(filter);
+            }
+            else {
+                result.add(child);
+            }
+        }
+
+        for (List<DbFilter> filters : filtersByField.values()) {
+            if (filters.size() == 1) {
+                result.add(filters.get(0));
+                continue;
+            }
+            try {
+                final var intersection = intersect(filters);
+                if (isNull(intersection)) {
+                    return null;
+                }
+                result.add(intersection);
+            }
+            catch (RuntimeException e) {
+                log.debug("Filters on {} were not intersected: {}", filters.get(0).getField(), e.getMessage());
+                result.addAll(filters);
+            }
+        }
+        return result;
+    }
+
+    private static DbFilter intersect(List<DbFilter> filters) {
+        final var template = filters.get(0);
+        Map<Comparable<?>, Object> allowed = null;
+        Comparable<?> lower = null;
+        Object rawLower = null;
+        Comparable<?> upper = null;
+        Object rawUpper = null;
+
+        for (DbFilter filter : filters) {
+            switch (filter.getOperator()) {
+                case EQUALS, IN -> allowed = retainValues(allowed, filter);
+                case BETWEEN, GREATER_THAN, LESS_THAN -> {
+                    final var from = filter.getValues().get(0);
+                    final var to = filter.getValues().get(1);
+                    if (nonNull(from) && (isNull(lower) || compare(cast(filter, from), lower) > 0)) {
+                        lower = cast(filter, from);
+                        rawLower = from;
+                    }
+                    if (nonNull(to) && (isNull(upper) || compare(cast(filter, to), upper) < 0)) {
+                        upper = cast(filter, to);
+                        rawUpper = to;
+                    }
+                }
+                default -> throw new IllegalStateException("Unexpected operator " + filter.getOperator());
+            }
+        }
+
+        if (nonNull(allowed)) {
+            final var bounded = new ArrayList<>();
+            for (var entry : allowed.entrySet()) {
+                if ((isNull(lower) || compare(entry.getKey(), lower) >= 0) && (isNull(upper) || compare(entry.getKey(), upper) <= 0)) {
+                    bounded.add(entry.getValue());
+                }
+            }
+            if (bounded.isEmpty()) {
+                return null;
+            }
+            return bounded.size() == 1 ?
+                   template.toBuilder().operator(QueryOperator.EQUALS).value(bounded.get(0)).values(null).build() :
+                   template.toBuilder().operator(QueryOperator.IN).value(null).values(bounded).build();
+        }
+
+        if (nonNull(lower) && nonNull(upper) && compare(lower, upper) > 0) {
+            return null;
+        }
+        final QueryOperator operator;
+        if (isNull(lower)) {
+            operator = QueryOperator.LESS_THAN;
+        }
+        else {
+            operator = isNull(upper) ? QueryOperator.GREATER_THAN : QueryOperator.BETWEEN;
+        }
+        return template.toBuilder().operator(operator).value(null).values(Arrays.asList(rawLower, rawUpper)).build();
+    }
+
+    private static Map<Comparable<?>, Object> retainValues(Map<Comparable<?>, Object> allowed, DbFilter filter) {
+        final List<?> values = QueryOperator.EQUALS.equals(filter.getOperator()) ? List.of(filter.getValue()) : filter.getValues();
+        final var filterValues = new LinkedHashMap<Comparable<?>, Object>();
+        for (Object value : values) {
+            filterValues.putIfAbsent(cast(filter, value), value);
+        }
+        if (isNull(allowed)) {
+            return filterValues;
+        }
+        allowed.keySet().removeIf(key -> filterValues.keySet().stream().noneMatch(value -> compare(value, key) == 0));
+        return allowed;
+    }
+
+    private static boolean isContradiction(DbFilter filter) {
+        if (nonNull(filter.getWrappedLogicalOperator()) || filter.isEntity()) {
+            return false;
+        }
+        if (QueryOperator.IN.equals(filter.getOperator())) {
+            return isNull(filter.getValues()) || filter.getValues().isEmpty();
+        }
+        if (QueryOperator.BETWEEN.equals(filter.getOperator()) && isRangeComparable(filter)) {
+            try {
+                return compare(cast(filter, filter.getValues().get(0)), cast(filter, filter.getValues().get(1))) > 0;
+            }
+            catch (RuntimeException e) {
+                log.debug("Range on {} was not checked: {}", filter.getField(), e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPlain(DbFilter filter) {
+        return isNull(filter.getWrappedLogicalOperator()) && !filter.isEntity();
+    }
+
+    private static boolean isMergeableIntoIn(DbFilter filter) {
+        if (!isPlain(filter) || Boolean.class.equals(filter.getType()) || boolean.class.equals(filter.getType())) {
+            return false;
+        }
+        return (QueryOperator.EQUALS.equals(filter.getOperator()) && nonNull(filter.getValue()))
+               || (QueryOperator.IN.equals(filter.getOperator()) && nonNull(filter.getValues()) && !filter.getValues().isEmpty());
+    }
+
+    private static boolean isIntersectable(DbFilter filter) {
+        if (!isPlain(filter)) {
+            return false;
+        }
+        return switch (filter.getOperator()) {
+            case EQUALS -> nonNull(filter.getValue()) && isCastable(filter);
+            case IN -> nonNull(filter.getValues()) && isCastable(filter);
+            case BETWEEN, GREATER_THAN, LESS_THAN -> isRangeComparable(filter);
+            default -> false;
+        };
+    }
+
+    // String ranges are compared against the raw column by BETWEEN/LESS_THAN but against upper(column)
+    // by GREATER_THAN, so merging them would change the result.
+    private static boolean isRangeComparable(DbFilter filter) {
+        return isCastable(filter) && !String.class.equals(filter.getType());
+    }
+
+    private static boolean isCastable(DbFilter filter) {
+        return TypeCasterFactory.isCastable(filter.getType());
+    }
+
+    private static Object normalizeInValue(DbFilter filter, Object value) {
+        return String.class.equals(filter.getType()) && value instanceof String string ? string.toUpperCase() : value;
+    }
+
+    private static Comparable<?> cast(DbFilter filter, Object value) {
+        final var cast = TypeCasterFactory.cast(filter.getType(), value.toString());
+        if (isNull(cast)) {
+            throw new IllegalArgumentException("Unknown value " + value);
+        }
+        return cast;
+    }
+
+    // Values cast for the filters of one field share its type, so they compare with each other.
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable<?> left, Comparable<?> right) {
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+}
@@ -18,41 +18,39 @@ package com.hiperboot.db.filter;
 import static com.hiperboot.db.filter.DbFilterBuilder.buildFilter;
 import static com.hiperboot.db.filter.LogicalOperator.AND;
 import static com.hiperboot.db.filter.LogicalOperator.NOT;
+import static com.hiperboot.db.filter.QueryOperator.JOIN;
+import static com.hiperboot.db.metadata.EntityMetadataRegistry.getEntityMetadata;
 import static com.hiperboot.util.StringUtils.toCamelCase;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.springframework.data.jpa.domain.Specification.where;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
-import com.hiperboot.db.filter.casting.TypeCaster;
 import com.hiperboot.db.filter.casting.TypeCasterFactory;
-import com.hiperboot.db.persistence.RetrievalStrategy;
-import com.hiperboot.db.persistence.Strategy;
 import com.hiperboot.exception.HiperBootException;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.extern.log4j.Log4j2;
 
 @Log4j2
 @Component
 public class HiperBootFilterGenerator<T> {
 
-    private static final Map<Class<?>, TypeCaster<?>> typeCasterMap = TypeCasterFactory.buildTypeCasterMap();
-
     public Specification<T> getSpecificationFromFilters(List<DbFilter> filters) {
         if (isNull(filters) || filters.isEmpty()) {
             return null;
@@ -71,40 +69,108 @@ public class HiperBootFilterGenerator<T> {
         return specification;
     }
 
-    protected Specification<T> createSpecification(DbFilter input) {
-        return (root, query, criteriaBuilder) ->
-        {
-            Expression<Comparable> rootField = root.get(input.getField());
-            Class<?> rootFieldType = rootField.getJavaType();
-            Expression<?> rootFieldUpper = String.class.isAssignableFrom(input.getType()) ?
-                                           criteriaBuilder.upper(root.get(input.getField())) :
-                                           root.get(input.getField());
-
-            return getPredicate(input, root, criteriaBuilder, rootField, rootFieldType, rootFieldUpper);
+    public Specification<T> getSpecification(FilterExpression expression) {
+        if (isNull(expression)) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> getPredicate(expression, root, criteriaBuilder, JoinType.INNER, isEntityQuery(root, query));
+    }
+
+    public boolean fetchesCollection(FilterExpression expression) {
+        return joinsCollection(expression, true);
+    }
+
+    // Projections never fetch, but any join on a collection still repeats the root once per matching element.
+    public boolean joinsCollection(FilterExpression expression) {
+        return joinsCollection(expression, false);
+    }
+
+    private boolean joinsCollection(FilterExpression expression, boolean fetchOnly) {
+        if (expression instanceof FilterGroup group) {
+            return group.getChildren().stream().anyMatch(child -> joinsCollection(child, fetchOnly));
+        }
+        return expression instanceof DbFilter input && JOIN.equals(input.getOperator()) && nonNull(input.getValue())
+               && joinsCollection(input.getOriginalClass(), input.getField(), input.getValue(), fetchOnly);
+    }
+
+    private boolean joinsCollection(Class<?> owner, String field, Object value, boolean fetchOnly) {
+        final var attribute = getEntityMetadata(owner).getAttribute(field);
+        if (isNull(attribute) || !attribute.isAssociation()) {
+            return false;
+        }
+        if (attribute.isCollection() && (!fetchOnly || attribute.isFetch())) {
+            return true;
+        }
+        return value instanceof Map<?, ?> children && children.entrySet().stream()
+                .anyMatch(child -> joinsCollection(attribute.getElementType(), toCamelCase(child.getKey().toString()), child.getValue(),
+                        fetchOnly));
+    }
+
+    // Fetch joins are only valid when the root entity is selected, alone or next to computed columns.
+    private static boolean isEntityQuery(Root<?> root, CriteriaQuery<?> query) {
+        if (isNull(query)) {
+            return false;
+        }
+        if (root.getJavaType().equals(query.getResultType())) {
+            return true;
+        }
+        final var selection = query.getSelection();
+        return nonNull(selection) && selection.isCompoundSelection() && selection.getCompoundSelectionItems().contains(root);
+    }
+
+    private Predicate getPredicate(FilterExpression expression, From<T, T> root, CriteriaBuilder cb, JoinType joinType, boolean fetch) {
+        if (expression instanceof DbFilter input) {
+            return createPredicate(input, root, cb, joinType, fetch);
+        }
+        final var group = (FilterGroup) expression;
+        final var childJoinType = AND.equals(group.getOperator()) ? joinType : JoinType.LEFT;
+        final var predicates = group.getChildren().stream()
+                .map(child -> getPredicate(child, root, cb, childJoinType, fetch))
+                .filter(Objects::nonNull)
+                .toArray(Predicate[]::new);
+
+        return switch (group.getOperator()) {
+            case AND -> cb.and(predicates);
+            case OR -> cb.or(predicates);
+            case NOT -> predicates.length == 0 ? null : cb.not(cb.and(predicates));
         };
     }
 
+    protected Specification<T> createSpecification(DbFilter input) {
+        return (root, query, criteriaBuilder) -> createPredicate(input, root, criteriaBuilder, JoinType.INNER, isEntityQuery(root, query));
+    }
+
+    private Predicate createPredicate(DbFilter input, From<T, T> root, CriteriaBuilder cb, JoinType joinType, boolean fetch) {
+        Expression<Comparable> rootField = root.get(input.getField());
+        Class<?> rootFieldType = rootField.getJavaType();
+        Expression<?> rootFieldUpper = String.class.isAssignableFrom(input.getType()) ?
+                                       cb.upper(root.get(input.getField())) :
+                                       root.get(input.getField());
+
+        return getPredicate(input, root, cb, rootField, rootFieldType, rootFieldUpper, joinType, fetch);
+    }
+
     private Predicate getPredicate(DbFilter input,
             From<T, T> root,
             CriteriaBuilder cb,
             Expression<Comparable> rootField,
             Class<?> rootFieldType,
-            Expression<?> rootFieldUpper) {
+            Expression<?> rootFieldUpper,
+            JoinType joinType,
+            boolean fetch) {
         Predicate predicate;
         validateTypeByOperation(input);
         switch (input.getOperator()) {
-            case JOIN -> predicate = isNull(input.getValue()) ? cb.isNull(rootField) : getPredicateJoin(input, root, cb);
+            case JOIN -> predicate = isNull(input.getValue()) ? cb.isNull(rootField) : getPredicateJoin(input, root, cb, joinType, fetch);
             case EQUALS -> predicate = isNull(input.getValue()) ?
                                        cb.isNull(rootField) :
                                        cb.equal(rootFieldUpper, castToRequiredType(rootFieldType, input.getValue()));
             case LIKE -> predicate = cb.like((Expression<String>) rootFieldUpper, input.getValue().toString().toUpperCase());
-            case IN -> predicate = (String.class.isAssignableFrom(rootFieldType)) ?
-                                   getInPredicate(input, cb, root) :
-                                   cb.in(root.get(input.getField())).value(castToList(rootFieldType, (List<String>) input.getValues()));
+            case IN -> predicate = getInPredicate(input, cb, rootFieldUpper, rootFieldType);
             case BETWEEN -> predicate = getBetween(input, cb, rootField, rootFieldType);
             case GREATER_THAN -> predicate = (String.class.isAssignableFrom(rootFieldType)) ?
                                              cb.greaterThanOrEqualTo((Expression<String>) rootFieldUpper,
-                                                     cb.literal((String) getFrom(input, rootFieldType))) :
+                                                     (String) getFrom(input, rootFieldType)) :
                                              cb.greaterThanOrEqualTo(root.get(input.getField()), getFrom(input, rootFieldType));
             case LESS_THAN -> predicate = cb.lessThanOrEqualTo(root.get(input.getField()), getTo(input, rootFieldType));
             case EMPTY -> predicate = cb.isEmpty(root.get(input.getField()));
@@ -148,39 +214,53 @@ public class HiperBootFilterGenerator<T> {
         }
     }
 
-    private CriteriaBuilder.In<String> getInPredicate(DbFilter input, CriteriaBuilder cb, From<T, T> root) {
-        CriteriaBuilder.In<String> inClause = cb.in(cb.upper(root.get(input.getField())));
+    private CriteriaBuilder.In<Object> getInPredicate(DbFilter input, CriteriaBuilder cb, Expression<?> rootFieldUpper,
+            Class<?> rootFieldType) {
+        CriteriaBuilder.In<Object> inClause = cb.in(rootFieldUpper);
 
-        for (Object item : input.getValues()) {
-            inClause.value(cb.upper(cb.literal(item.toString())));
+        for (Object item : padToPowerOfTwo(castToList(rootFieldType, (List<String>) input.getValues()))) {
+            inClause.value(item);
         }
         return inClause;
     }
 
+    static <E> List<E> padToPowerOfTwo(List<E> values) {
+        if (values.size() < 2) {
+            return values;
+        }
+        final int paddedSize = Integer.highestOneBit(values.size() - 1) << 1;
+        final var padded = new ArrayList<E>(paddedSize);
+        padded.addAll(values);
+        while (padded.size() < paddedSize) {
+            padded.add(values.get(values.size() - 1));
+        }
+        return padded;
+    }
+
     private Predicate getBetween(DbFilter input, CriteriaBuilder cb, Expression<Comparable> rootField, Class<?> rootFieldType) {
         return cb.between(rootField, getFrom(input, rootFieldType), getTo(input, rootFieldType));
     }
 
-    private Predicate getPredicateJoin(DbFilter input, From<T, T> root, CriteriaBuilder cb) {
+    private Predicate getPredicateJoin(DbFilter input, From<T, T> root, CriteriaBuilder cb, JoinType joinType, boolean fetch) {
         Join<Object, Object> joinChildren;
 
-        if (fetchData(input.getOriginalClass(), input.getField())) {
-            joinChildren = (Join<Object, Object>) root.fetch(input.getField(), JoinType.INNER);
+        if (fetch && fetchData(input.getOriginalClass(), input.getField())) {
+            joinChildren = (Join<Object, Object>) root.fetch(input.getField(), joinType);
         }
         else {
-            joinChildren = root.join(input.getField(), JoinType.INNER);
+            joinChildren = root.join(input.getField(), joinType);
         }
 
         var filterMap = (Map<String, Object>) input.getValue();
         var childrenList = new ArrayList<LinkedHashMap<String, Object>>();
 
-        for (Field childField : joinChildren.getModel().getBindableJavaType().getDeclaredFields()) {
-            final var match = filterMap.entrySet().stream()
-                    .filter(stringObjectEntry -> toCamelCase(stringObjectEntry.getKey()).equals(childField.getName()))
-                    .findFirst().orElse(null);
-            if (nonNull(match)) {
+        var childMetadata = getEntityMetadata(joinChildren.getModel().getBindableJavaType());
+
+        for (var filterEntry : filterMap.entrySet()) {
+            final var childField = toCamelCase(filterEntry.getKey());
+            if (childMetadata.hasAttribute(childField)) {
                 final var map = new LinkedHashMap<String, Object>();
-                map.put(toCamelCase(match.getKey()), match.getValue());
+                map.put(childField, filterEntry.getValue());
                 childrenList.add(map);
             }
         }
@@ -189,7 +269,7 @@ public class HiperBootFilterGenerator<T> {
             return null;
         }
 
-        var andPredicates = getChildrenPredicates(cb, joinChildren, filterMap, childrenList);
+        var andPredicates = getChildrenPredicates(cb, joinChildren, filterMap, childrenList, joinType, fetch);
         return input.getLogicalOperator().equals(AND) ?
                cb.and(andPredicates.toArray(new Predicate[0])) : cb.or(andPredicates.toArray(new Predicate[0]));
     }
@@ -197,14 +277,16 @@ public class HiperBootFilterGenerator<T> {
     private ArrayList<Predicate> getChildrenPredicates(CriteriaBuilder cb,
             Join<Object, Object> joinChildren,
             Map<String, Object> filterMap,
-            ArrayList<LinkedHashMap<String, Object>> childrenList) {
+            ArrayList<LinkedHashMap<String, Object>> childrenList,
+            JoinType joinType,
+            boolean fetch) {
         var andPredicates = new ArrayList<Predicate>();
         for (var child : childrenList) {
             for (var childEntry : child.entrySet()) {
                 for (var filterEntry : filterMap.entrySet()) {
                     final var filterKey = toCamelCase(filterEntry.getKey());
                     if (filterKey.equals(childEntry.getKey())) {
-                        andPredicates.add(addChildrenPredicate(cb, joinChildren, child, filterKey));
+                        andPredicates.add(addChildrenPredicate(cb, joinChildren, child, filterKey, joinType, fetch));
                     }
                 }
             }
@@ -215,7 +297,9 @@ public class HiperBootFilterGenerator<T> {
     private Predicate addChildrenPredicate(CriteriaBuilder cb,
             From<Object, Object> joinChildren,
             LinkedHashMap<String, Object> childFilter,
-            String field) {
+            String field,
+            JoinType joinType,
+            boolean fetch) {
         Expression<Comparable> rootField = joinChildren.get(field);
         Class<?> rootFieldType = rootField.getJavaType();
         var fieldJoinArg = joinChildren.get(field);
@@ -225,26 +309,25 @@ public class HiperBootFilterGenerator<T> {
                                             joinChildren.get(field);
 
         final var errorList = new ArrayList<String>();
-        List<DbFilter> filters = buildFilter(childFilter, errorList, new HashMap<>(Map.of(field, rootFieldType)), rootFieldType);
+        var childMetadata = getEntityMetadata(joinChildren.getModel().getBindableJavaType());
+        List<DbFilter> filters = buildFilter(childFilter, errorList, childMetadata);
 
-        return getPredicate(filters.get(0), (From<T, T>) joinChildren, cb, rootField, rootFieldType, rootFieldUpper);
+        return getPredicate(filters.get(0), (From<T, T>) joinChildren, cb, rootField, rootFieldType, rootFieldUpper, joinType, fetch);
     }
 
     private Comparable<?> castToRequiredType(Class<?> fieldType, Object value) {
         if (isNull(value)) {
             return null;
         }
-        String stringValue = value.toString();
-
-        if (Enum.class.isAssignableFrom(fieldType)) {
-            return (Comparable<?>) castToEnum(fieldType, stringValue);
+        if (!TypeCasterFactory.isCastable(fieldType)) {
+            log.error("Impossible to castToRequiredType. Type {} wasn't found.", fieldType.toString());
+            return (Comparable<?>) value;
         }
-        TypeCaster<?> caster = typeCasterMap.get(fieldType);
-        if (caster != null) {
-            return caster.cast(stringValue);
+        Comparable<?> cast = TypeCasterFactory.cast(fieldType, value.toString());
+        if (isNull(cast)) {
+            log.warn("Enum type not found.");
         }
-        log.error("Impossible to castToRequiredType. Type {} wasn't found.", fieldType.toString());
-        return (Comparable<?>) value;
+        return cast;
     }
 
     private List<Object> castToList(Class<?> fieldType, List<String> value) {
@@ -260,18 +343,6 @@ public class HiperBootFilterGenerator<T> {
         return lists;
     }
 
-    private Object castToEnum(Class<?> fieldType, String value) {
-        Object[] possibleValues = fieldType.getEnumConstants();
-
-        for (Object possibleValue : possibleValues) {
-            if (possibleValue.toString().equalsIgnoreCase(value)) {
-                return possibleValue;
-            }
-        }
-        log.warn("Enum type not found.");
-        return null;
-    }
-
     private Comparable getFrom(DbFilter input, Class<?> rootFieldType) {
         return castToRequiredType(rootFieldType, input.getValues().get(0));
     }
@@ -281,18 +352,8 @@ public class HiperBootFilterGenerator<T> {
     }
 
     private boolean fetchData(Class<?> originalClass, String field) {
-        try {
-            Field classField = originalClass.getDeclaredField(field);
-            RetrievalStrategy retrievalStrategy = classField.getAnnotation(RetrievalStrategy.class);
-
-            if (retrievalStrategy != null) {
-                return retrievalStrategy.value() == Strategy.FETCH;
-            }
-        }
-        catch (NoSuchFieldException e) {
-            log.debug("Field not found: " + e.getMessage());
-        }
-        return true;
+        var attribute = getEntityMetadata(originalClass).getAttribute(field);
+        return isNull(attribute) || attribute.isFetch();
     }
 
 }
\ No newline at end of file
@@ -15,6 +15,8 @@
  */
 package com.hiperboot.db.filter.casting;
 
+import static java.util.Objects.isNull;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Date;
@@ -23,7 +25,10 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -41,19 +46,45 @@ import com.hiperboot.db.filter.casting.type.JavaSqlDateTypeCaster;
 import com.hiperboot.db.filter.casting.type.JavaSqlTimestampTypeCaster;
 import com.hiperboot.db.filter.casting.type.LocalDateTimeTypeCaster;
 import com.hiperboot.db.filter.casting.type.LocalDateTypeCaster;
+import com.hiperboot.db.filter.casting.type.LocalTimeTypeCaster;
 import com.hiperboot.db.filter.casting.type.LongTypeCaster;
 import com.hiperboot.db.filter.casting.type.OffsetDateTimeTypeCaster;
 import com.hiperboot.db.filter.casting.type.ShortTypeCaster;
 import com.hiperboot.db.filter.casting.type.StringTypeCaster;
 import com.hiperboot.db.filter.casting.type.TimeTypeCaster;
 import com.hiperboot.db.filter.casting.type.UUIDTypeCaster;
+import com.hiperboot.db.filter.casting.type.ZonedDateTimeTypeCaster;
 
 public class TypeCasterFactory {
+    private static final Map<Class<?>, TypeCaster<?>> TYPE_CASTERS = buildTypeCasterMap();
 
     private TypeCasterFactory() {
 
     }
 
+    // Null when no caster is registered for the type.
+    public static TypeCaster<?> getCaster(Class<?> type) {
+        return TYPE_CASTERS.get(type);
+    }
+
+    public static boolean isCastable(Class<?> type) {
+        return Enum.class.isAssignableFrom(type) || TYPE_CASTERS.containsKey(type);
+    }
+
+    // Enum constants match ignoring case, other types go through their caster. Null when the enum has no such
+    // constant or no caster is registered for the type.
+    public static Comparable<?> cast(Class<?> type, String value) {
+        if (Enum.class.isAssignableFrom(type)) {
+            return Arrays.stream(type.getEnumConstants())
+                    .filter(constant -> constant.toString().equalsIgnoreCase(value))
+                    .map(constant -> (Comparable<?>) constant)
+                    .findFirst()
+                    .orElse(null);
+        }
+        final var caster = getCaster(type);
+        return isNull(caster) ? null : caster.cast(value);
+    }
+
     public static Map<Class<?>, TypeCaster<? extends Comparable>> buildTypeCasterMap() {
         Map<Class<?>, TypeCaster<?>> typeCasters = new HashMap<>();
 
@@ -77,6 +108,8 @@ public class TypeCasterFactory {
         typeCasters.put(Float.class, new FloatTypeCaster());
         typeCasters.put(BigInteger.class, new BigIntegerTypeCaster());
         typeCasters.put(UUID.class, new UUIDTypeCaster());
+        typeCasters.put(LocalTime.class, new LocalTimeTypeCaster());
+        typeCasters.put(ZonedDateTime.class, new ZonedDateTimeTypeCaster());
         return typeCasters;
     }
 }
\ No newline at end of file
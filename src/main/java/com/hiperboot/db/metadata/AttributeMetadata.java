@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.metadata;
+
+import static jakarta.persistence.metamodel.Attribute.PersistentAttributeType.BASIC;
+import static jakarta.persistence.metamodel.Attribute.PersistentAttributeType.EMBEDDED;
+import static java.util.Objects.isNull;
+
+import com.hiperboot.db.persistence.Strategy;
+
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@Builder
+@ToString
+public class AttributeMetadata {
+    private final String name;
+    private final Class<?> javaType;
+    private final Class<?> elementType;
+    private final PersistentAttributeType associationKind;
+    private final boolean collection;
+    private final Strategy retrievalStrategy;
+
+    public boolean isAssociation() {
+        return associationKind != BASIC && associationKind != EMBEDDED;
+    }
+
+    public boolean isFetch() {
+        return isNull(retrievalStrategy) || retrievalStrategy == Strategy.FETCH;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.metadata;
+
+import java.util.Collections;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class EntityMetadata {
+    private final Class<?> javaType;
+    private final Map<String, AttributeMetadata> attributes;
+    private final String idAttribute;
+
+    public EntityMetadata(Class<?> javaType, Map<String, AttributeMetadata> attributes, String idAttribute) {
+        this.javaType = javaType;
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.idAttribute = idAttribute;
+    }
+
+    public AttributeMetadata getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    public boolean hasAttribute(String name) {
+        return attributes.containsKey(name);
+    }
+}
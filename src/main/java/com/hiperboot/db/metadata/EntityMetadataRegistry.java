@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.metadata;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.ReflectionUtils;
+
+import com.hiperboot.db.persistence.RetrievalStrategy;
+import com.hiperboot.db.persistence.Strategy;
+
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EntityMetadataRegistry {
+
+    private static final Map<Class<?>, EntityMetadata> registry = new ConcurrentHashMap<>();
+    private static final Set<Class<?>> entities = ConcurrentHashMap.newKeySet();
+
+    public static void register(Metamodel metamodel, Class<?> clazz) {
+        if (registry.containsKey(clazz)) {
+            return;
+        }
+        final var managedType = metamodel.managedType(clazz);
+        final var metadata = fromManagedType(managedType);
+        if (managedType instanceof EntityType<?>) {
+            entities.add(clazz);
+        }
+        registry.put(clazz, metadata);
+        log.debug("Entity metadata registered for {}", clazz.getName());
+
+        metadata.getAttributes().values().stream()
+                .filter(AttributeMetadata::isAssociation)
+                .map(AttributeMetadata::getElementType)
+                .filter(type -> type.isAnnotationPresent(Entity.class))
+                .forEach(type -> register(metamodel, type));
+    }
+
+    public static EntityMetadata getEntityMetadata(Class<?> clazz) {
+        var metadata = registry.get(clazz);
+        if (isNull(metadata)) {
+            metadata = registry.computeIfAbsent(clazz, EntityMetadataRegistry::fromReflection);
+        }
+        return metadata;
+    }
+
+    // Entities of the metamodel, also when mapped in orm.xml, or @Entity classes it has not registered.
+    public static boolean isEntity(Class<?> clazz) {
+        return entities.contains(clazz) || clazz.isAnnotationPresent(Entity.class);
+    }
+
+    public static boolean isCollectionType(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    private static EntityMetadata fromManagedType(ManagedType<?> managedType) {
+        final var clazz = managedType.getJavaType();
+        final var attributes = new LinkedHashMap<String, AttributeMetadata>();
+        String idAttribute = null;
+
+        for (Attribute<?, ?> attribute : managedType.getAttributes()) {
+            if (managedType instanceof IdentifiableType<?> identifiableType && identifiableType.hasSingleIdAttribute()
+                && attribute instanceof SingularAttribute<?, ?> singularAttribute && singularAttribute.isId()) {
+                idAttribute = attribute.getName();
+            }
+            final var elementType = attribute.isCollection() ?
+                                    ((PluralAttribute<?, ?, ?>) attribute).getElementType().getJavaType() :
+                                    attribute.getJavaType();
+            final var field = attribute.getJavaMember() instanceof Field f ? f : ReflectionUtils.findField(clazz, attribute.getName());
+
+            attributes.put(attribute.getName(), AttributeMetadata.builder()
+                    .name(attribute.getName())
+                    .javaType(attribute.getJavaType())
+                    .elementType(elementType)
+                    .associationKind(attribute.getPersistentAttributeType())
+                    .collection(attribute.isCollection())
+                    .retrievalStrategy(getRetrievalStrategy(field))
+                    .build());
+        }
+        return new EntityMetadata(clazz, attributes, idAttribute);
+    }
+
+    private static EntityMetadata fromReflection(Class<?> clazz) {
+        log.debug("Entity metadata for {} built from reflection", clazz.getName());
+        final var attributes = new LinkedHashMap<String, AttributeMetadata>();
+        String idAttribute = null;
+
+        for (Class<?> currentClass : getClassHierarchy(clazz)) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                if (isNull(idAttribute) && field.isAnnotationPresent(Id.class)) {
+                    idAttribute = field.getName();
+                }
+                final var collection = isCollectionType(field.getType());
+                final var elementType = collection ? getCollectionElementType(field) : field.getType();
+
+                attributes.putIfAbsent(field.getName(), AttributeMetadata.builder()
+                        .name(field.getName())
+                        .javaType(field.getType())
+                        .elementType(elementType)
+                        .associationKind(getAssociationKind(field, collection))
+                        .collection(collection)
+                        .retrievalStrategy(getRetrievalStrategy(field))
+                        .build());
+            }
+        }
+        return new EntityMetadata(clazz, attributes, idAttribute);
+    }
+
+    private static PersistentAttributeType getAssociationKind(Field field, boolean collection) {
+        if (collection) {
+            if (field.isAnnotationPresent(ElementCollection.class)) {
+                return PersistentAttributeType.ELEMENT_COLLECTION;
+            }
+            return field.isAnnotationPresent(ManyToMany.class) ?
+                   PersistentAttributeType.MANY_TO_MANY : PersistentAttributeType.ONE_TO_MANY;
+        }
+        if (field.getType().isAnnotationPresent(Entity.class)) {
+            return field.isAnnotationPresent(OneToOne.class) ?
+                   PersistentAttributeType.ONE_TO_ONE : PersistentAttributeType.MANY_TO_ONE;
+        }
+        return field.isAnnotationPresent(Embedded.class) ? PersistentAttributeType.EMBEDDED : PersistentAttributeType.BASIC;
+    }
+
+    private static Class<?> getCollectionElementType(Field field) {
+        if (field.getGenericType() instanceof ParameterizedType parameterizedType
+            && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            return elementType;
+        }
+        return Object.class;
+    }
+
+    private static Strategy getRetrievalStrategy(AnnotatedElement element) {
+        if (isNull(element)) {
+            return null;
+        }
+        final var retrievalStrategy = element.getAnnotation(RetrievalStrategy.class);
+        return nonNull(retrievalStrategy) ? retrievalStrategy.value() : null;
+    }
+
+    private static List<Class<?>> getClassHierarchy(Class<?> clazz) {
+        List<Class<?>> classes = new ArrayList<>();
+        Class<?> currentClass = clazz;
+        while (currentClass != null && !currentClass.equals(Object.class)) {
+            classes.add(currentClass);
+            currentClass = currentClass.getSuperclass();
+        }
+        return classes;
+    }
+}
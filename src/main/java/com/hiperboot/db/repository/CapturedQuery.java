@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository;
+
+import static java.util.Objects.isNull;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.postgresql.core.BaseConnection;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+// A query as Hibernate sent it to the driver: the SQL with its "?" markers and the setter calls that bound them.
+@Getter
+public class CapturedQuery {
+    private final String sql;
+    @Getter(AccessLevel.NONE)
+    private final List<Binding> bindings;
+
+    CapturedQuery(String sql, List<Binding> bindings) {
+        this.sql = sql;
+        this.bindings = List.copyOf(bindings);
+    }
+
+    // The SQL with each "?" replaced by its value, written by Hibernate's literal formatter for the value type, for
+    // statements that take no parameters (COPY). Empty when a value has no literal form, or when the connection does not
+    // use standard conforming strings, where a backslash in a literal would be an escape.
+    public Optional<String> inline(SharedSessionContractImplementor session, Connection connection) throws SQLException {
+        if (!connection.unwrap(BaseConnection.class).getStandardConformingStrings()) {
+            return Optional.empty();
+        }
+        final Map<Integer, String> literals = new HashMap<>();
+        for (final var binding : bindings) {
+            final var literal = toLiteral(session, binding.method.getName().equals("setNull") ? null : binding.args[1]);
+            if (isNull(literal)) {
+                return Optional.empty();
+            }
+            literals.put((Integer) binding.args[0], literal);
+        }
+
+        final var inlined = new StringBuilder(sql.length());
+        var parameters = 0;
+        var i = 0;
+        while (i < sql.length()) {
+            final var end = skipQuoted(sql, i);
+            if (end > i) {
+                inlined.append(sql, i, end);
+                i = end;
+            }
+            else if (sql.charAt(i) == '?') {
+                final var literal = literals.get(++parameters);
+                if (isNull(literal)) {
+                    return Optional.empty();
+                }
+                inlined.append(literal);
+                i++;
+            }
+            else {
+                inlined.append(sql.charAt(i++));
+            }
+        }
+        return parameters == literals.size() ? Optional.of(inlined.toString()) : Optional.empty();
+    }
+
+    // The statement has to contain getSql() with no parameter before it, the values are bound by position.
+    public PreparedStatement prepare(Connection connection, String statementSql) throws SQLException {
+        final var statement = connection.prepareStatement(statementSql);
+        try {
+            for (final var binding : bindings) {
+                PostgresSqlRenderer.invoke(statement, binding.method, binding.args);
+            }
+        }
+        catch (SQLException | RuntimeException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+
+    private static String toLiteral(SharedSessionContractImplementor session, Object value) {
+        if (isNull(value)) {
+            return "null";
+        }
+        final var typeConfiguration = session.getTypeConfiguration();
+        final JavaType<Object> javaType = typeConfiguration.getJavaTypeRegistry().findDescriptor(value.getClass());
+        if (isNull(javaType)) {
+            return null;
+        }
+        final var formatter = javaType.getRecommendedJdbcType(typeConfiguration.getCurrentBaseSqlTypeIndicators()).getJdbcLiteralFormatter(javaType);
+        return isNull(formatter) ? null : formatter.toJdbcLiteral(value, session.getJdbcServices().getDialect(), session);
+    }
+
+    // End of the string literal, quoted identifier or comment starting at start, start itself when there is none.
+    private static int skipQuoted(String sql, int start) {
+        final var c = sql.charAt(start);
+        final var next = start + 1 < sql.length() ? sql.charAt(start + 1) : 0;
+        final int end;
+        if (c == '\'' || c == '"') {
+            end = sql.indexOf(c, start + 1);
+        }
+        else if (c == '-' && next == '-') {
+            end = sql.indexOf('\n', start + 2);
+        }
+        else if (c == '/' && next == '*') {
+            final var close = sql.indexOf("*/", start + 2);
+            end = close < 0 ? -1 : close + 1;
+        }
+        else {
+            return start;
+        }
+        return end < 0 ? sql.length() : end + 1;
+    }
+
+    static final class Binding {
+        private final Method method;
+        private final Object[] args;
+
+        Binding(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository;
+
+import static java.util.Objects.isNull;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hiperboot.exception.HiperBootException;
+import com.hiperboot.pagination.count.RowCount;
+import com.hiperboot.util.HiperBootExecutors;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Getter
+public class ConcurrentCountExecutor {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_CONCURRENT_COUNTS = 32;
+
+    private static ConcurrentCountExecutor defaultExecutor;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public ConcurrentCountExecutor(ExecutorService executor, int maxConcurrentCounts, Duration timeout) {
+        if (maxConcurrentCounts < 1) {
+            log.error("Max concurrent counts must not be less than one.");
+            throw new IllegalArgumentException("Max concurrent counts must not be less than one.");
+        }
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentCounts);
+        this.timeout = timeout;
+    }
+
+    public static synchronized ConcurrentCountExecutor getDefault() {
+        if (isNull(defaultExecutor)) {
+            defaultExecutor = new ConcurrentCountExecutor(HiperBootExecutors.newVirtualThreadExecutor("hiperboot-count"),
+                    DEFAULT_MAX_CONCURRENT_COUNTS, DEFAULT_TIMEOUT);
+        }
+        return defaultExecutor;
+    }
+
+    public PendingCount submit(EntityManagerFactory entityManagerFactory, Function<HiperBootQueryExecutor, RowCount> count) {
+        return submit(entityManagerFactory, null, count);
+    }
+
+    // Returns null when no permit or thread is available, the caller then counts sequentially.
+    public PendingCount submit(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+            Function<HiperBootQueryExecutor, RowCount> count) {
+        if (!permits.tryAcquire()) {
+            log.debug("All concurrent count permits in use, counting sequentially");
+            return null;
+        }
+        try {
+            final Future<RowCount> future = executor.submit(() -> {
+                try {
+                    return HiperBootQueryExecutor.inReadOnlyTransaction(entityManagerFactory, transactionManager, timeout, count);
+                }
+                finally {
+                    permits.release();
+                }
+            });
+            return new PendingCount(future);
+        }
+        catch (RejectedExecutionException e) {
+            permits.release();
+            log.debug("Concurrent count rejected by the executor, counting sequentially");
+            return null;
+        }
+    }
+
+    public class PendingCount {
+        private final Future<RowCount> future;
+
+        private PendingCount(Future<RowCount> future) {
+            this.future = future;
+        }
+
+        public void cancel() {
+            future.cancel(true);
+        }
+
+        // A timeout cancels the count and fails the request, any other failure (exhausted connection pool,
+        // JTA managed factory...) falls back to the sequential count.
+        public RowCount get(Supplier<RowCount> sequentialCount) {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            catch (TimeoutException e) {
+                cancel();
+                log.error("Count query timed out after {} ms", timeout.toMillis());
+                throw new HiperBootException("Count query timed out after " + timeout.toMillis() + " ms");
+            }
+            catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new HiperBootException("Interrupted while waiting for the count query");
+            }
+            catch (ExecutionException e) {
+                log.warn("Concurrent count failed, counting sequentially: {}", e.getCause().getMessage());
+                return sequentialCount.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hiperboot.exception.HiperBootException;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+
+// Each subscription reads its own forward-only cursor on a worker, with its own connection and read-only transaction.
+// Rows are only fetched as the subscriber requests them, and cancelling closes the cursor and releases the connection.
+// Emitted entities are detached once onNext returns. A worker is held for the whole subscription: on Java 17 the default
+// executor is a bounded pool that rejects new subscriptions with onError once every thread is busy, see
+// HiperBootExecutors.newVirtualThreadExecutor. A worker interrupted while waiting ends the subscription with onError too,
+// unless the subscriber cancelled.
+@Log4j2
+public class CursorPublisher<T> implements Flow.Publisher<T> {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final Executor executor;
+    private final Class<T> entity;
+    private final Specification<T> specification;
+    private final Sort sort;
+    private final int fetchSize;
+
+    public CursorPublisher(EntityManagerFactory entityManagerFactory, Executor executor, Class<T> entity, Specification<T> specification,
+            Sort sort, int fetchSize) {
+        this(entityManagerFactory, null, executor, entity, specification, sort, fetchSize);
+    }
+
+    public CursorPublisher(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager, Executor executor,
+            Class<T> entity, Specification<T> specification, Sort sort, int fetchSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionManager = transactionManager;
+        this.executor = executor;
+        this.entity = entity;
+        this.specification = specification;
+        this.sort = sort;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        final var subscription = new CursorSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        try {
+            executor.execute(subscription::run);
+        }
+        catch (RejectedExecutionException e) {
+            log.error("No worker available for the cursor publisher");
+            subscriber.onError(e);
+        }
+    }
+
+    private class CursorSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demandChanged = lock.newCondition();
+        private long demand;
+        private boolean cancelled;
+        private IllegalArgumentException invalidRequest;
+
+        private CursorSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (n <= 0) {
+                    invalidRequest = new IllegalArgumentException("Requested rows must be positive, got " + n);
+                }
+                else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                demandChanged.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                demandChanged.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private void run() {
+            try {
+                if (HiperBootQueryExecutor.inReadOnlyTransaction(entityManagerFactory, transactionManager, null, this::emit)) {
+                    subscriber.onComplete();
+                }
+            }
+            catch (RuntimeException e) {
+                if (!isCancelled()) {
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        // True once the cursor is exhausted, false when the subscription was cancelled.
+        private boolean emit(HiperBootQueryExecutor queryExecutor) {
+            final var session = queryExecutor.getEntityManager().unwrap(Session.class);
+            try (var results = queryExecutor.scroll(entity, specification, sort, fetchSize)) {
+                long emitted = 0;
+                while (awaitDemand()) {
+                    if (!results.next()) {
+                        return true;
+                    }
+                    final var row = results.get();
+                    subscriber.onNext(row);
+                    session.evict(row);
+                    if (++emitted % fetchSize == 0) {
+                        session.clear();
+                    }
+                }
+                return false;
+            }
+        }
+
+        private boolean awaitDemand() {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled && invalidRequest == null) {
+                    demandChanged.await();
+                }
+                if (invalidRequest != null) {
+                    throw invalidRequest;
+                }
+                if (cancelled) {
+                    return false;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                return true;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Cursor publisher interrupted while waiting for demand");
+                throw new HiperBootException("Cursor publisher interrupted while waiting for demand");
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+}
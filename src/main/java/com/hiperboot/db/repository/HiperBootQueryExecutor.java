@@ -0,0 +1,624 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.SelectionQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import com.hiperboot.aggregate.Aggregation;
+import com.hiperboot.aggregate.Measure;
+import com.hiperboot.db.metadata.EntityMetadataRegistry;
+import com.hiperboot.exception.HiperBootException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Getter
+public class HiperBootQueryExecutor {
+    private static final String QUERY_TIMEOUT = "jakarta.persistence.query.timeout";
+    private static final String GROUPING_ALIAS = "hb_facet";
+    private static final Set<Class<?>> GROUPING_SETS_TYPES = Set.of(String.class, Long.class, Integer.class, Short.class, BigDecimal.class,
+            Double.class, Float.class, Boolean.class, UUID.class, LocalDate.class, LocalDateTime.class, OffsetDateTime.class);
+
+    private final EntityManager entityManager;
+
+    public HiperBootQueryExecutor(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T> Slice<T> findSlice(Class<T> entity, Specification<T> specification, Pageable pageable) {
+        final var query = createQuery(entity, specification, pageable.getSort());
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        final var content = new ArrayList<>(query.getResultList());
+        final var hasNext = content.size() > pageable.getPageSize();
+        final List<T> pageContent = hasNext ? new ArrayList<>(content.subList(0, pageable.getPageSize())) : content;
+        return new SliceImpl<>(pageContent, pageable, hasNext);
+    }
+
+    // Two-phase mode for fetch joins on collections: pages over distinct root ids first, so LIMIT/OFFSET run in
+    // the database instead of in memory, then loads the entities of the page with their fetched associations.
+    public <T> Slice<T> findSlice(Class<T> entity, Specification<T> specification, Pageable pageable, boolean twoPhase) {
+        if (!twoPhase) {
+            return findSlice(entity, specification, pageable);
+        }
+        final var ids = findIds(entity, specification, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        final var hasNext = ids.size() > pageable.getPageSize();
+        final var pageIds = hasNext ? ids.subList(0, pageable.getPageSize()) : ids;
+        return new SliceImpl<>(findAllByIds(entity, specification, pageIds), pageable, hasNext);
+    }
+
+    public <T> List<Object> findIds(Class<T> entity, Specification<T> specification, Sort sort, long offset, int maxResults) {
+        final var idAttribute = getIdAttribute(entity);
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = applySpecification(cb, query, entity, specification);
+
+        final List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(idAttribute));
+        if (nonNull(sort) && sort.isSorted()) {
+            final var orders = QueryUtils.toOrders(sort, root, cb);
+            orders.forEach(order -> selections.add(order.getExpression()));
+            query.orderBy(orders);
+        }
+        query.multiselect(selections).distinct(true);
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(maxResults)
+                .getResultList().stream()
+                .map(tuple -> tuple.get(0))
+                .toList();
+    }
+
+    public <T> List<T> findAllByIds(Class<T> entity, Specification<T> specification, List<Object> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final var idAttribute = getIdAttribute(entity);
+        final Specification<T> byIds = (root, query, cb) -> root.get(idAttribute).in(ids);
+        final var rows = createQuery(entity, Specification.where(specification).and(byIds), Sort.unsorted()).getResultList();
+
+        final var persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        final Map<Object, T> rowsById = new HashMap<>();
+        rows.forEach(row -> rowsById.putIfAbsent(persistenceUnitUtil.getIdentifier(row), row));
+        return ids.stream().map(rowsById::get).filter(Objects::nonNull).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Selects the given property paths instead of the entity, associations on the way are left joined so a missing
+    // one gives nulls instead of dropping the row. Distinct keeps one row per root when filters join collections,
+    // the id and sort columns are selected after the paths so rows that only look alike are not merged.
+    public <T> TypedQuery<Tuple> createTupleQuery(Class<T> entity, Specification<T> specification, List<String> paths, Sort sort,
+            boolean distinct) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = applySpecification(cb, query, entity, specification);
+
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        final List<Selection<?>> selections = new ArrayList<>();
+        paths.forEach(path -> selections.add(getPath(root, joins, path)));
+        final var orders = getOrders(cb, root, sort);
+        if (distinct) {
+            selections.add(root.get(getIdAttribute(entity)));
+            orders.forEach(order -> selections.add(order.getExpression()));
+        }
+        query.multiselect(selections).distinct(distinct).orderBy(orders);
+        return entityManager.createQuery(query);
+    }
+
+    public <T> Slice<Tuple> findTupleSlice(Class<T> entity, Specification<T> specification, List<String> paths, Pageable pageable,
+            boolean distinct) {
+        final var content = new ArrayList<>(createTupleQuery(entity, specification, paths, pageable.getSort(), distinct)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList());
+        final var hasNext = content.size() > pageable.getPageSize();
+        final List<Tuple> pageContent = hasNext ? new ArrayList<>(content.subList(0, pageable.getPageSize())) : content;
+        return new SliceImpl<>(pageContent, pageable, hasNext);
+    }
+
+    // Grouping and measures run in the database, one tuple per group with the group values first, ordered by them.
+    public <T> List<Tuple> aggregate(Class<T> entity, Specification<T> specification, Aggregation aggregation) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = applySpecification(cb, query, entity, specification);
+
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        final List<Expression<?>> groups = aggregation.getGroupBy().stream().<Expression<?>>map(path -> getPath(root, joins, path)).toList();
+        final List<Selection<?>> selections = new ArrayList<>(groups);
+        aggregation.getMeasures().forEach(measure -> selections.add(toExpression(cb, root, joins, measure)));
+        query.multiselect(selections).groupBy(groups).orderBy(groups.stream().map(cb::asc).toList());
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // The prefix becomes a range (>= 'Jo' and < 'Jp') an index can seek on; the like keeps the match exact under
+    // collations that interleave upper and lower case.
+    public <T> List<Object> findDistinct(Class<T> entity, Specification<T> specification, String path, String prefix, int limit) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        final var root = applySpecification(cb, query, entity, specification);
+        final var column = getPath(root, new HashMap<>(), path);
+
+        final List<Predicate> predicates = new ArrayList<>();
+        if (nonNull(query.getRestriction())) {
+            predicates.add(query.getRestriction());
+        }
+        predicates.add(cb.isNotNull(column));
+        if (nonNull(prefix) && !prefix.isEmpty()) {
+            @SuppressWarnings("unchecked")
+            final var text = (Expression<String>) column;
+            predicates.add(cb.greaterThanOrEqualTo(text, prefix));
+            final var upperBound = prefixUpperBound(prefix);
+            if (nonNull(upperBound)) {
+                predicates.add(cb.lessThan(text, upperBound));
+            }
+            predicates.add(cb.like(text, prefix.replaceAll("([\\\\%_])", "\\\\$1") + "%", '\\'));
+        }
+        query.select(column).distinct(true).where(predicates.toArray(Predicate[]::new)).orderBy(cb.asc(column));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // Several facets in one statement on Postgres: the filtered columns are rendered by Hibernate, then counted with
+    // GROUPING SETS, one set per column, with the filter values bound as Hibernate bound them. A row belongs to the set
+    // whose column is not rolled up.
+    public <T> List<Map<Object, Long>> countByGroupingSets(Class<T> entity, Specification<T> specification, List<String> paths) {
+        final var session = entityManager.unwrap(Session.class);
+        final var cb = session.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = applySpecification(cb, query, entity, specification);
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        final List<Path<?>> columns = paths.stream().<Path<?>>map(path -> getPath(root, joins, path)).toList();
+        query.multiselect(new ArrayList<Selection<?>>(columns));
+
+        return session.doReturningWork(connection -> {
+            final var captured = PostgresSqlRenderer.capture(session, connection, query);
+            final var aliases = IntStream.range(0, columns.size()).mapToObj(i -> "f" + i).toList();
+            final var sql = "select " + String.join(", ", aliases)
+                            + ", " + aliases.stream().map(alias -> "grouping(" + alias + ")").collect(Collectors.joining(", "))
+                            + ", count(*) from (" + captured.getSql() + ") "
+                            + GROUPING_ALIAS + "(" + String.join(", ", aliases) + ")"
+                            + " group by grouping sets (" + aliases.stream().map(alias -> "(" + alias + ")").collect(Collectors.joining(", ")) + ")"
+                            + " order by " + String.join(", ", aliases);
+            log.debug("Facets with GROUPING SETS ({})", sql);
+
+            final List<Map<Object, Long>> counts = new ArrayList<>();
+            columns.forEach(column -> counts.add(new LinkedHashMap<>()));
+            try (var statement = captured.prepare(connection, sql); var rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (rows.getInt(columns.size() + i + 1) == 0) {
+                            final var type = ClassUtils.resolvePrimitiveIfNecessary(columns.get(i).getJavaType());
+                            counts.get(i).put(rows.getObject(i + 1, type), rows.getLong(2 * columns.size() + 1));
+                            break;
+                        }
+                    }
+                }
+            }
+            return counts;
+        });
+    }
+
+    // Types the Postgres driver reads back as the attribute type, anything else is counted through JPA.
+    public static boolean isGroupingSetsType(Class<?> type) {
+        return GROUPING_SETS_TYPES.contains(ClassUtils.resolvePrimitiveIfNecessary(type));
+    }
+
+    // The page query also selects count(*) over(), the total of the whole result, so one query reads both. Window
+    // functions run before distinct, so distinct rows are grouped instead and the count sees each of them once.
+    public <T> Page<T> findPageWithWindowTotal(Class<T> entity, Specification<T> specification, Pageable pageable, boolean twoPhase) {
+        final var cb = getHibernateCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = applySpecification(cb, query, entity, specification);
+        final var orders = getOrders(cb, root, pageable.getSort());
+        if (!twoPhase) {
+            final var rows = findWindowRows(cb, query, root, List.of(root), false, orders, pageable);
+            final List<T> content = rows.stream().map(row -> row.get(0, entity)).collect(Collectors.toCollection(ArrayList::new));
+            return new PageImpl<>(content, pageable, getWindowTotal(rows, () -> count(entity, specification)));
+        }
+        final List<Expression<?>> columns = new ArrayList<>();
+        columns.add(root.get(getIdAttribute(entity)));
+        orders.forEach(order -> columns.add(order.getExpression()));
+        final var rows = findWindowRows(cb, query, root, columns, true, orders, pageable);
+        final var ids = rows.stream().map(row -> row.get(0)).toList();
+        return new PageImpl<>(findAllByIds(entity, specification, ids), pageable, getWindowTotal(rows, () -> count(entity, distinct(specification))));
+    }
+
+    // Same select list as createTupleQuery, with the window total as the last column of each tuple.
+    public <T> Page<Tuple> findTuplePageWithWindowTotal(Class<T> entity, Specification<T> specification, List<String> paths, Pageable pageable,
+            boolean distinct) {
+        final var cb = getHibernateCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = applySpecification(cb, query, entity, specification);
+        final var orders = getOrders(cb, root, pageable.getSort());
+
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        final List<Expression<?>> columns = new ArrayList<>();
+        paths.forEach(path -> columns.add(getPath(root, joins, path)));
+        if (distinct) {
+            columns.add(root.get(getIdAttribute(entity)));
+            orders.forEach(order -> columns.add(order.getExpression()));
+        }
+        final var rows = findWindowRows(cb, query, root, columns, distinct, orders, pageable);
+        final var countSpecification = distinct ? distinct(specification) : specification;
+        return new PageImpl<>(new ArrayList<>(rows), pageable, getWindowTotal(rows, () -> count(entity, countSpecification)));
+    }
+
+    private <T> List<Tuple> findWindowRows(HibernateCriteriaBuilder cb, CriteriaQuery<Tuple> query, Root<T> root, List<Expression<?>> columns,
+            boolean grouped, List<Order> orders, Pageable pageable) {
+        final List<Selection<?>> selections = new ArrayList<>(columns);
+        selections.add(cb.count(root, cb.createWindow()));
+        query.multiselect(selections).orderBy(orders);
+        if (grouped) {
+            query.groupBy(columns);
+        }
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    // An empty page has no row to read the total from, it is counted instead.
+    private static long getWindowTotal(List<Tuple> rows, LongSupplier count) {
+        if (rows.isEmpty()) {
+            return count.getAsLong();
+        }
+        final var row = rows.get(0);
+        return row.get(row.getElements().size() - 1, Long.class);
+    }
+
+    private HibernateCriteriaBuilder getHibernateCriteriaBuilder() {
+        if (!(entityManager.getCriteriaBuilder() instanceof HibernateCriteriaBuilder cb)) {
+            log.error("Window totals require Hibernate");
+            throw new HiperBootException("Window totals require Hibernate");
+        }
+        return cb;
+    }
+
+    private static List<Order> getOrders(CriteriaBuilder cb, Root<?> root, Sort sort) {
+        return nonNull(sort) && sort.isSorted() ? QueryUtils.toOrders(sort, root, cb) : List.of();
+    }
+
+    // Forward-only cursor: rows are read fetchSize at a time and each entity is evicted from the persistence
+    // context once the next one is requested, so memory stays flat however many rows the filter matches.
+    public <T> Stream<T> stream(Class<T> entity, Specification<T> specification, Sort sort, int fetchSize) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.error("Streaming requires a surrounding transaction");
+            throw new HiperBootException("Streaming requires a surrounding transaction");
+        }
+        final var session = entityManager.unwrap(Session.class);
+        final var results = scroll(entity, specification, sort, fetchSize);
+
+        final Iterator<T> iterator = new Iterator<>() {
+            private T previous;
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (isNull(hasNext)) {
+                    evictPrevious();
+                    hasNext = results.next();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                previous = results.get();
+                return previous;
+            }
+
+            private void evictPrevious() {
+                if (nonNull(previous) && session.contains(previous)) {
+                    session.evict(previous);
+                }
+                previous = null;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(results::close);
+    }
+
+    public <T> ScrollableResults<T> scroll(Class<T> entity, Specification<T> specification, Sort sort, int fetchSize) {
+        final SelectionQuery<T> query = entityManager.unwrap(Session.class).createSelectionQuery(createCriteriaQuery(entity, specification, sort));
+        return query.setFetchSize(fetchSize).scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    // Runs the work on a new EntityManager, so on its own connection, in a transaction that is never flushed and
+    // always rolled back. The JPA query timeout, when given, lets the database cancel statements that run too long.
+    // EntityManager.getTransaction() is only allowed on RESOURCE_LOCAL persistence units, JTA ones need the overload
+    // with a transaction manager.
+    public static <R> R inReadOnlyTransaction(EntityManagerFactory entityManagerFactory, Duration timeout, Function<HiperBootQueryExecutor, R> work) {
+        final var entityManager = entityManagerFactory.createEntityManager();
+        try {
+            setReadOnly(entityManager, timeout);
+
+            final var transaction = entityManager.getTransaction();
+            transaction.begin();
+            try {
+                return work.apply(new HiperBootQueryExecutor(entityManager));
+            }
+            finally {
+                transaction.rollback();
+            }
+        }
+        finally {
+            entityManager.close();
+        }
+    }
+
+    // Same, in a new read-only transaction of the application's transaction manager (JpaTransactionManager,
+    // JtaTransactionManager...), always rolled back. Falls back to the resource-local transaction without one.
+    public static <R> R inReadOnlyTransaction(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+            Duration timeout, Function<HiperBootQueryExecutor, R> work) {
+        if (isNull(transactionManager)) {
+            return inReadOnlyTransaction(entityManagerFactory, timeout, work);
+        }
+        final var template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        if (nonNull(timeout)) {
+            template.setTimeout((int) Math.ceil(timeout.toMillis() / 1000.0));
+        }
+        return template.execute(status -> {
+            status.setRollbackOnly();
+            final var entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            if (isNull(entityManager)) {
+                log.error("The transaction manager did not provide an EntityManager for the persistence unit");
+                throw new HiperBootException("The transaction manager did not provide an EntityManager for the persistence unit");
+            }
+            setReadOnly(entityManager, timeout);
+            return work.apply(new HiperBootQueryExecutor(entityManager));
+        });
+    }
+
+    private static void setReadOnly(EntityManager entityManager, Duration timeout) {
+        if (nonNull(timeout)) {
+            entityManager.setProperty(QUERY_TIMEOUT, timeout.toMillis());
+        }
+        final var session = entityManager.unwrap(Session.class);
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+    }
+
+    // Flushes pending changes of a writable transaction before detaching everything, as batch jobs expect.
+    public void flushAndClear() {
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            entityManager.flush();
+        }
+        entityManager.clear();
+    }
+
+    public static <T> Specification<T> distinct(Specification<T> specification) {
+        return (root, query, cb) -> {
+            query.distinct(true);
+            return isNull(specification) ? null : specification.toPredicate(root, query, cb);
+        };
+    }
+
+    // Joins on collections repeat the root once per element, filtering on the ids of a subquery keeps each root once.
+    public static <T> Specification<T> inSubquery(Class<T> entity, Specification<T> specification) {
+        if (isNull(specification)) {
+            return null;
+        }
+        final var idAttribute = getIdAttribute(entity);
+        return (root, query, cb) -> {
+            final Path<Object> id = root.get(idAttribute);
+            @SuppressWarnings("unchecked")
+            final var subquery = query.subquery((Class<Object>) id.getJavaType());
+            final var subRoot = subquery.from(entity);
+            subquery.select(subRoot.get(idAttribute));
+            final var predicate = specification.toPredicate(subRoot, query, cb);
+            if (nonNull(predicate)) {
+                subquery.where(predicate);
+            }
+            return id.in(subquery);
+        };
+    }
+
+    public <T> long count(Class<T> entity, Specification<T> specification) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final var root = applySpecification(cb, query, entity, specification);
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // select count(*) from (select id ... limit maxRows), the limit runs in the database and a single row comes back.
+    public <T> long countUpTo(Class<T> entity, Specification<T> specification, long maxRows) {
+        final var cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        final JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final JpaSubQuery<Object> rows = query.subquery(Object.class);
+        final var root = rows.from(entity);
+        if (nonNull(specification)) {
+            final var predicate = specification.toPredicate(root, query, cb);
+            if (nonNull(predicate)) {
+                rows.where(predicate);
+            }
+        }
+        // A distinct specification marks the query it is given, the ids have to be distinct inside the limit.
+        final Path<Object> id = root.get(getIdAttribute(entity));
+        id.alias("id");
+        rows.select(id).distinct(query.isDistinct()).fetch(maxRows);
+        query.distinct(false);
+        query.from(rows);
+        query.select(cb.count(cb.literal(1)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // select 1 ... limit 1, the database stops at the first match and no entity is read.
+    public <T> boolean exists(Class<T> entity, Specification<T> specification) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        applySpecification(cb, query, entity, specification);
+        query.select(cb.literal(1));
+        return !entityManager.createQuery(query).setMaxResults(1).getResultList().isEmpty();
+    }
+
+    public <T> TypedQuery<T> createQuery(Class<T> entity, Specification<T> specification, Sort sort) {
+        return entityManager.createQuery(createCriteriaQuery(entity, specification, sort));
+    }
+
+    private <T> CriteriaQuery<T> createCriteriaQuery(Class<T> entity, Specification<T> specification, Sort sort) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = cb.createQuery(entity);
+        final var root = applySpecification(cb, query, entity, specification);
+        query.select(root);
+
+        if (nonNull(sort) && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    public Dialect getDialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    private static String getIdAttribute(Class<?> entity) {
+        final var idAttribute = EntityMetadataRegistry.getEntityMetadata(entity).getIdAttribute();
+        if (isNull(idAttribute)) {
+            log.error("Entity {} has no single id attribute", entity.getSimpleName());
+            throw new HiperBootException("Entity " + entity.getSimpleName() + " has no single id attribute");
+        }
+        return idAttribute;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Expression<?> toExpression(CriteriaBuilder cb, Root<?> root, Map<String, From<?, ?>> joins, Measure measure) {
+        if (isNull(measure.getField())) {
+            return cb.count(root);
+        }
+        final var path = getPath(root, joins, measure.getField());
+        return switch (measure.getFunction()) {
+            case COUNT -> cb.count(path);
+            case SUM -> cb.sum((Expression<Number>) path);
+            case AVG -> cb.avg((Expression<Number>) path);
+            case MIN -> cb.least((Expression<Comparable>) path);
+            case MAX -> cb.greatest((Expression<Comparable>) path);
+        };
+    }
+
+    // Smallest string greater than every string starting with the prefix, null when there is none.
+    private static String prefixUpperBound(String prefix) {
+        var end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        return end == 0 ? null : prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+
+    public static Path<?> getPath(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+        final var properties = path.split("\\.");
+        Path<?> current = root;
+        var prefix = "";
+        for (int i = 0; i < properties.length - 1; i++) {
+            final var property = properties[i];
+            prefix = prefix + "." + property;
+            final var attribute = EntityMetadataRegistry.getEntityMetadata(current.getJavaType()).getAttribute(property);
+            if (current instanceof From<?, ?> from && nonNull(attribute) && attribute.isAssociation()) {
+                current = joins.computeIfAbsent(prefix, key -> from.join(property, JoinType.LEFT));
+            }
+            else {
+                current = current.get(property);
+            }
+        }
+        return current.get(properties[properties.length - 1]);
+    }
+
+    private <T> Root<T> applySpecification(CriteriaBuilder cb, CriteriaQuery<?> query, Class<T> entity, Specification<T> specification) {
+        return applySpecification(cb, query, query.from(entity), specification);
+    }
+
+    private <T> Root<T> applySpecification(CriteriaBuilder cb, CriteriaQuery<?> query, Root<T> root, Specification<T> specification) {
+        if (nonNull(specification)) {
+            final var predicate = specification.toPredicate(root, query, cb);
+            if (nonNull(predicate)) {
+                query.where(predicate);
+            }
+        }
+        return root;
+    }
+}
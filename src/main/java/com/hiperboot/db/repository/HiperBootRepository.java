@@ -15,25 +15,118 @@
  */
 package com.hiperboot.db.repository;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import com.hiperboot.aggregate.AggregateResult;
+import com.hiperboot.aggregate.Aggregation;
 import com.hiperboot.db.domain.BasePage;
+import com.hiperboot.export.ExportFormat;
 
 @NoRepositoryBean
 public interface HiperBootRepository<T> extends JpaSpecificationExecutor<T> {
     List<T> hiperBootFilter(Class<T> entity, Map<String, Object> filters);
 
+    long hiperBootCount(Class<T> entity, Map<String, Object> filters);
+
+    boolean hiperBootExists(Class<T> entity, Map<String, Object> filters);
+
+    Flow.Publisher<T> hiperBootFilterPublisher(Class<T> entity, Map<String, Object> filters);
+
+    Stream<T> hiperBootStream(Class<T> entity, Map<String, Object> filters);
+
+    Stream<T> hiperBootStream(Class<T> entity, Map<String, Object> filters, int fetchSize);
+
+    long hiperBootExport(Class<T> entity, Map<String, Object> filters, List<String> columns, ExportFormat format, OutputStream outputStream);
+
+    long hiperBootCopyExport(Class<T> entity, Map<String, Object> filters, List<String> columns, OutputStream outputStream);
+
+    long hiperBootForEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, Consumer<List<T>> consumer);
+
+    long hiperBootForEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, Consumer<List<T>> consumer, int workers);
+
     Page<T> hiperBootPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable);
 
     Page<T> hiperBootPageFilter(Class<T> entity, Map<String, Object> filters);
 
+    Slice<T> hiperBootSliceFilter(Class<T> entity, Map<String, Object> filters);
+
+    Slice<T> hiperBootSliceFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable);
+
     BasePage hiperBootBasePageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable);
 
     BasePage hiperBootBasePageFilter(Class<T> entity, Map<String, Object> filters);
+
+    List<Map<String, Object>> hiperBootFieldsFilter(Class<T> entity, Map<String, Object> filters);
+
+    Page<Map<String, Object>> hiperBootFieldsPageFilter(Class<T> entity, Map<String, Object> filters);
+
+    Page<Map<String, Object>> hiperBootFieldsPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable);
+
+    <R> List<R> hiperBootFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters);
+
+    <R> Page<R> hiperBootPageFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters);
+
+    <R> Page<R> hiperBootPageFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters, Pageable pageable);
+
+    AggregateResult hiperBootAggregate(Class<T> entity, Map<String, Object> filters);
+
+    AggregateResult hiperBootAggregate(Class<T> entity, Map<String, Object> filters, Aggregation aggregation);
+
+    List<Object> hiperBootDistinct(Class<T> entity, String fieldPath, Map<String, Object> filters, int limit);
+
+    List<Object> hiperBootDistinct(Class<T> entity, String fieldPath, String prefix, Map<String, Object> filters, int limit);
+
+    Map<String, Map<Object, Long>> hiperBootFacets(Class<T> entity, Map<String, Object> filters, List<String> facets);
+
+    CompletableFuture<List<T>> hiperBootFilterAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<Page<T>> hiperBootPageFilterAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<Page<T>> hiperBootPageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable);
+
+    CompletableFuture<Slice<T>> hiperBootSliceFilterAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<Slice<T>> hiperBootSliceFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable);
+
+    CompletableFuture<BasePage> hiperBootBasePageFilterAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<BasePage> hiperBootBasePageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable);
+
+    CompletableFuture<Long> hiperBootCountAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<Boolean> hiperBootExistsAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<List<Map<String, Object>>> hiperBootFieldsFilterAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<Page<Map<String, Object>>> hiperBootFieldsPageFilterAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<Page<Map<String, Object>>> hiperBootFieldsPageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable);
+
+    <R> CompletableFuture<List<R>> hiperBootFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters);
+
+    <R> CompletableFuture<Page<R>> hiperBootPageFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters);
+
+    <R> CompletableFuture<Page<R>> hiperBootPageFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters, Pageable pageable);
+
+    CompletableFuture<AggregateResult> hiperBootAggregateAsync(Class<T> entity, Map<String, Object> filters);
+
+    CompletableFuture<AggregateResult> hiperBootAggregateAsync(Class<T> entity, Map<String, Object> filters, Aggregation aggregation);
+
+    CompletableFuture<List<Object>> hiperBootDistinctAsync(Class<T> entity, String fieldPath, Map<String, Object> filters, int limit);
+
+    CompletableFuture<List<Object>> hiperBootDistinctAsync(Class<T> entity, String fieldPath, String prefix, Map<String, Object> filters, int limit);
+
+    CompletableFuture<Map<String, Map<Object, Long>>> hiperBootFacetsAsync(Class<T> entity, Map<String, Object> filters, List<String> facets);
 }
\ No newline at end of file
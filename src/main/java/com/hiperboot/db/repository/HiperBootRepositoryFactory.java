@@ -23,17 +23,28 @@ import org.springframework.data.jpa.repository.support.JpaRepositoryImplementati
 import org.springframework.data.repository.core.RepositoryInformation;
 import org.springframework.data.repository.core.RepositoryMetadata;
 
+import com.hiperboot.db.metadata.EntityMetadataRegistry;
+import com.hiperboot.service.HiperBootSettings;
+
 import jakarta.persistence.EntityManager;
 
 public class HiperBootRepositoryFactory extends JpaRepositoryFactory {
+    private final HiperBootSettings settings;
+
     public HiperBootRepositoryFactory(EntityManager entityManager /*, ApplicationContext context*/) {
+        this(entityManager, null);
+    }
+
+    public HiperBootRepositoryFactory(EntityManager entityManager, HiperBootSettings settings) {
         super(entityManager);
+        this.settings = settings;
     }
 
     @Override
     protected JpaRepositoryImplementation<?, ?> getTargetRepository(RepositoryInformation information, EntityManager entityManager) {
         JpaEntityInformation<?, Serializable> entityInformation = getEntityInformation(information.getDomainType());
-        return new HiperBootRepositoryImpl<>(entityInformation, entityManager);
+        EntityMetadataRegistry.register(entityManager.getMetamodel(), information.getDomainType());
+        return new HiperBootRepositoryImpl<>(entityInformation, entityManager, settings);
     }
 
     @Override
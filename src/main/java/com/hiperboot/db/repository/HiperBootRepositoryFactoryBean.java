@@ -17,20 +17,32 @@ package com.hiperboot.db.repository;
 
 import java.io.Serializable;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 
+import com.hiperboot.service.HiperBootSettings;
+
 import jakarta.persistence.EntityManager;
 
 public class HiperBootRepositoryFactoryBean<R extends JpaRepository<T, P>, T, P extends Serializable>
         extends JpaRepositoryFactoryBean<R, T, P> /*implements ApplicationContextAware*/ {
+    private HiperBootSettings settings;
+
     public HiperBootRepositoryFactoryBean(Class<R> repositoryInterface/*, ApplicationContext context*/) {
         super(repositoryInterface);
     }
 
+    // Optional, a HiperBootSettings bean configures the service of every repository.
+    @Autowired
+    public void setHiperBootSettings(ObjectProvider<HiperBootSettings> settings) {
+        this.settings = settings.getIfAvailable();
+    }
+
     @Override
     protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
-        return new HiperBootRepositoryFactory(entityManager /*, context*/);
+        return new HiperBootRepositoryFactory(entityManager, settings /*, context*/);
     }
 }
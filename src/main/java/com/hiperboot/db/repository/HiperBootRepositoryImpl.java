@@ -15,16 +15,30 @@
  */
 package com.hiperboot.db.repository;
 
+import static java.util.Objects.nonNull;
+
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.hiperboot.aggregate.AggregateResult;
+import com.hiperboot.aggregate.Aggregation;
 import com.hiperboot.db.domain.BasePage;
+import com.hiperboot.export.ExportFormat;
 import com.hiperboot.service.HiperBootService;
+import com.hiperboot.service.HiperBootSettings;
 
 import jakarta.persistence.EntityManager;
 
@@ -33,8 +47,15 @@ public class HiperBootRepositoryImpl<T, I> extends SimpleJpaRepository<T, I> imp
     private final HiperBootService<T> hiperBootService;
 
     public HiperBootRepositoryImpl(JpaEntityInformation<?, ?> entityInformation, EntityManager em) {
+        this(entityInformation, em, null);
+    }
+
+    public HiperBootRepositoryImpl(JpaEntityInformation<?, ?> entityInformation, EntityManager em, HiperBootSettings settings) {
         super((JpaEntityInformation<T, ?>) entityInformation, em);
-        this.hiperBootService = new HiperBootService<>(this);
+        this.hiperBootService = new HiperBootService<>(this, em);
+        if (nonNull(settings)) {
+            settings.applyTo(hiperBootService);
+        }
     }
 
     @Override
@@ -42,6 +63,58 @@ public class HiperBootRepositoryImpl<T, I> extends SimpleJpaRepository<T, I> imp
         return hiperBootService.hiperBootFilter(entity, filters);
     }
 
+    @Override
+    public long hiperBootCount(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootCount(entity, filters);
+    }
+
+    @Override
+    public boolean hiperBootExists(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootExists(entity, filters);
+    }
+
+    @Override
+    public Flow.Publisher<T> hiperBootFilterPublisher(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFilterPublisher(entity, filters);
+    }
+
+    // The cursor must outlive this call, so the caller's transaction is required instead of the repository one.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Stream<T> hiperBootStream(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootStream(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Stream<T> hiperBootStream(Class<T> entity, Map<String, Object> filters, int fetchSize) {
+        return hiperBootService.hiperBootStream(entity, filters, fetchSize);
+    }
+
+    @Override
+    public long hiperBootExport(Class<T> entity, Map<String, Object> filters, List<String> columns, ExportFormat format,
+            OutputStream outputStream) {
+        return hiperBootService.hiperBootExport(entity, filters, columns, format, outputStream);
+    }
+
+    @Override
+    public long hiperBootCopyExport(Class<T> entity, Map<String, Object> filters, List<String> columns, OutputStream outputStream) {
+        return hiperBootService.hiperBootCopyExport(entity, filters, columns, outputStream);
+    }
+
+    // Writable, so changes made by the consumer are flushed with each chunk.
+    @Override
+    @Transactional
+    public long hiperBootForEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, Consumer<List<T>> consumer) {
+        return hiperBootService.hiperBootForEachBatch(entity, filters, batchSize, consumer);
+    }
+
+    @Override
+    @Transactional
+    public long hiperBootForEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, Consumer<List<T>> consumer, int workers) {
+        return hiperBootService.hiperBootForEachBatch(entity, filters, batchSize, consumer, workers);
+    }
+
     @Override
     public Page<T> hiperBootPageFilter(Class<T> entity, Map<String, Object> filters) {
         return hiperBootService.hiperBootPageFilter(entity, filters);
@@ -52,6 +125,16 @@ public class HiperBootRepositoryImpl<T, I> extends SimpleJpaRepository<T, I> imp
         return hiperBootService.hiperBootPageFilter(entity, filters, pageable);
     }
 
+    @Override
+    public Slice<T> hiperBootSliceFilter(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootSliceFilter(entity, filters);
+    }
+
+    @Override
+    public Slice<T> hiperBootSliceFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return hiperBootService.hiperBootSliceFilter(entity, filters, pageable);
+    }
+
     @Override
     public BasePage hiperBootBasePageFilter(Class<T> entity, Map<String, Object> filters) {
         return hiperBootService.hiperBootBasePageFilter(entity, filters);
@@ -61,4 +144,186 @@ public class HiperBootRepositoryImpl<T, I> extends SimpleJpaRepository<T, I> imp
     public BasePage hiperBootBasePageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
         return hiperBootService.hiperBootBasePageFilter(entity, filters, pageable);
     }
-}
+
+    @Override
+    public List<Map<String, Object>> hiperBootFieldsFilter(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFieldsFilter(entity, filters);
+    }
+
+    @Override
+    public Page<Map<String, Object>> hiperBootFieldsPageFilter(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFieldsPageFilter(entity, filters);
+    }
+
+    @Override
+    public Page<Map<String, Object>> hiperBootFieldsPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return hiperBootService.hiperBootFieldsPageFilter(entity, filters, pageable);
+    }
+
+    @Override
+    public <R> List<R> hiperBootFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFilter(entity, projectionType, filters);
+    }
+
+    @Override
+    public <R> Page<R> hiperBootPageFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return hiperBootService.hiperBootPageFilter(entity, projectionType, filters);
+    }
+
+    @Override
+    public <R> Page<R> hiperBootPageFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters, Pageable pageable) {
+        return hiperBootService.hiperBootPageFilter(entity, projectionType, filters, pageable);
+    }
+
+    @Override
+    public AggregateResult hiperBootAggregate(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootAggregate(entity, filters);
+    }
+
+    @Override
+    public AggregateResult hiperBootAggregate(Class<T> entity, Map<String, Object> filters, Aggregation aggregation) {
+        return hiperBootService.hiperBootAggregate(entity, filters, aggregation);
+    }
+
+    @Override
+    public List<Object> hiperBootDistinct(Class<T> entity, String fieldPath, Map<String, Object> filters, int limit) {
+        return hiperBootService.hiperBootDistinct(entity, fieldPath, filters, limit);
+    }
+
+    @Override
+    public List<Object> hiperBootDistinct(Class<T> entity, String fieldPath, String prefix, Map<String, Object> filters, int limit) {
+        return hiperBootService.hiperBootDistinct(entity, fieldPath, prefix, filters, limit);
+    }
+
+    @Override
+    public Map<String, Map<Object, Long>> hiperBootFacets(Class<T> entity, Map<String, Object> filters, List<String> facets) {
+        return hiperBootService.hiperBootFacets(entity, filters, facets);
+    }
+
+    // The query runs later in its own read-only transaction, there is nothing to open on the calling thread.
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<T>> hiperBootFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFilterAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Page<T>> hiperBootPageFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootPageFilterAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Page<T>> hiperBootPageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return hiperBootService.hiperBootPageFilterAsync(entity, filters, pageable);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Slice<T>> hiperBootSliceFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootSliceFilterAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Slice<T>> hiperBootSliceFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return hiperBootService.hiperBootSliceFilterAsync(entity, filters, pageable);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<BasePage> hiperBootBasePageFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootBasePageFilterAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<BasePage> hiperBootBasePageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return hiperBootService.hiperBootBasePageFilterAsync(entity, filters, pageable);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Long> hiperBootCountAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootCountAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Boolean> hiperBootExistsAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootExistsAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<Map<String, Object>>> hiperBootFieldsFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFieldsFilterAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Page<Map<String, Object>>> hiperBootFieldsPageFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFieldsPageFilterAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Page<Map<String, Object>>> hiperBootFieldsPageFilterAsync(Class<T> entity, Map<String, Object> filters,
+            Pageable pageable) {
+        return hiperBootService.hiperBootFieldsPageFilterAsync(entity, filters, pageable);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public <R> CompletableFuture<List<R>> hiperBootFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return hiperBootService.hiperBootFilterAsync(entity, projectionType, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public <R> CompletableFuture<Page<R>> hiperBootPageFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return hiperBootService.hiperBootPageFilterAsync(entity, projectionType, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public <R> CompletableFuture<Page<R>> hiperBootPageFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters,
+            Pageable pageable) {
+        return hiperBootService.hiperBootPageFilterAsync(entity, projectionType, filters, pageable);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<AggregateResult> hiperBootAggregateAsync(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootService.hiperBootAggregateAsync(entity, filters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<AggregateResult> hiperBootAggregateAsync(Class<T> entity, Map<String, Object> filters,
+            Aggregation aggregation) {
+        return hiperBootService.hiperBootAggregateAsync(entity, filters, aggregation);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<Object>> hiperBootDistinctAsync(Class<T> entity, String fieldPath, Map<String, Object> filters,
+            int limit) {
+        return hiperBootService.hiperBootDistinctAsync(entity, fieldPath, filters, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<Object>> hiperBootDistinctAsync(Class<T> entity, String fieldPath, String prefix, Map<String,
+            Object> filters, int limit) {
+        return hiperBootService.hiperBootDistinctAsync(entity, fieldPath, prefix, filters, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Map<String, Map<Object, Long>>> hiperBootFacetsAsync(Class<T> entity, Map<String, Object> filters,
+            List<String> facets) {
+        return hiperBootService.hiperBootFacetsAsync(entity, filters, facets);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.springframework.util.ClassUtils;
+
+import com.hiperboot.exception.HiperBootException;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+// Turns a criteria query into Postgres SQL, for statements Hibernate can't express (COPY, GROUPING SETS). The query runs
+// once through a child session on the same connection, wrapped in "limit 0" so nothing is read, and the prepared
+// statement is captured on its way to the driver, its values apart from the SQL.
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PostgresSqlRenderer {
+    private static final String ALIAS = "hb_query";
+    private static final String EMPTY_RESULT = " limit 0";
+
+    public static boolean isSupported(Dialect dialect) {
+        return dialect instanceof PostgreSQLDialect && ClassUtils.isPresent("org.postgresql.PGConnection", PostgresSqlRenderer.class.getClassLoader());
+    }
+
+    // The SQL as Hibernate prepared it, its values kept apart as the calls that bound them.
+    public static CapturedQuery capture(Session session, Connection connection, CriteriaQuery<?> query) {
+        final var sql = new AtomicReference<String>();
+        final List<CapturedQuery.Binding> bindings = new ArrayList<>();
+        try (var capturing = session.getSessionFactory().withOptions()
+                .connection(capturingConnection(connection, sql, bindings))
+                .statementInspector(statement -> "select * from (" + statement + ") " + ALIAS + EMPTY_RESULT)
+                .openSession()) {
+            capturing.createQuery(query).getResultList();
+        }
+        final var captured = sql.get();
+        if (isNull(captured) || !captured.endsWith(EMPTY_RESULT)) {
+            log.error("Could not render the query as SQL");
+            throw new HiperBootException("Could not render the query as SQL");
+        }
+        return new CapturedQuery(captured.substring(0, captured.length() - EMPTY_RESULT.length()), bindings);
+    }
+
+    private static Connection capturingConnection(Connection connection, AtomicReference<String> sql, List<CapturedQuery.Binding> bindings) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+            final var result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                sql.set((String) args[0]);
+                bindings.clear();
+                return capturingStatement(statement, bindings);
+            }
+            return result;
+        });
+    }
+
+    // Parameter setters are the only setters taking the parameter index along with the value.
+    private static PreparedStatement capturingStatement(PreparedStatement statement, List<CapturedQuery.Binding> bindings) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && nonNull(args) && args.length > 1 && args[0] instanceof Integer) {
+                        bindings.add(new CapturedQuery.Binding(method, args.clone()));
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    static Object invoke(Object target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new HiperBootException("Could not render the query as SQL: " + e.getCause().getMessage());
+        }
+        catch (IllegalAccessException e) {
+            throw new HiperBootException("Could not render the query as SQL: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.export;
+
+import static java.util.Objects.isNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.NullValueInNestedPathException;
+
+import com.hiperboot.projection.FieldProjection;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+// Writes rows as they come from the stream, nothing but the current row is kept.
+@Log4j2
+@Getter
+public class HiperBootExporter {
+
+    private final Class<?> entity;
+    private final List<String> columns;
+    private final ExportFormat format;
+
+    public HiperBootExporter(Class<?> entity, List<String> columns, ExportFormat format) {
+        validate(entity, columns);
+        this.entity = entity;
+        this.columns = List.copyOf(columns);
+        this.format = format;
+    }
+
+    public static void validate(Class<?> entity, List<String> columns) {
+        if (isNull(columns) || columns.isEmpty()) {
+            log.error("Export requires at least one column");
+            throw new IllegalArgumentException("Export requires at least one column");
+        }
+        columns.forEach(column -> FieldProjection.validatePath(entity, column));
+    }
+
+    public long export(Stream<?> rows, OutputStream outputStream) {
+        final var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, columns);
+            }
+            long count = 0;
+            for (final var iterator = rows.iterator(); iterator.hasNext(); count++) {
+                final var row = new BeanWrapperImpl(iterator.next());
+                final var values = columns.stream().map(column -> getValue(row, column)).toList();
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, values);
+                }
+                else {
+                    writeJsonLine(writer, values);
+                }
+            }
+            writer.flush();
+            return count;
+        }
+        catch (IOException e) {
+            log.error("Export failed", e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object getValue(BeanWrapperImpl row, String column) {
+        try {
+            return row.getPropertyValue(column);
+        }
+        catch (NullValueInNestedPathException e) {
+            return null;
+        }
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            final var value = values.get(i);
+            if (!isNull(value)) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonLine(Writer writer, List<?> values) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(quoteJson(columns.get(i)));
+            writer.write(':');
+            final var value = values.get(i);
+            if (isNull(value)) {
+                writer.write("null");
+            }
+            else if (value instanceof Number || value instanceof Boolean) {
+                writer.write(value.toString());
+            }
+            else {
+                writer.write(quoteJson(value.toString()));
+            }
+        }
+        writer.write("}\n");
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String quoteJson(String value) {
+        final var json = new StringBuilder(value.length() + 2).append('"');
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
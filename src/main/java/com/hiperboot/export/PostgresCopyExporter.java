@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.export;
+
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.postgresql.PGConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+import com.hiperboot.db.repository.PostgresSqlRenderer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Selection;
+import lombok.extern.log4j.Log4j2;
+
+// Bulk CSV export for Postgres: the filter is compiled by Hibernate as usual, then run through COPY ... TO STDOUT
+// so the database writes the CSV and no entity is ever hydrated. COPY takes no bind parameters, the filter values are
+// written into the SQL by Hibernate's literal formatters, see CapturedQuery.inline.
+@Log4j2
+public class PostgresCopyExporter {
+    private final EntityManager entityManager;
+
+    public PostgresCopyExporter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public static boolean isSupported(Dialect dialect) {
+        return PostgresSqlRenderer.isSupported(dialect);
+    }
+
+    // Empty when a filter value has no SQL literal, nothing is written then.
+    public <T> OptionalLong export(Class<T> entity, Specification<T> specification, Sort sort, List<String> columns, OutputStream outputStream) {
+        final var session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            final var query = PostgresSqlRenderer.capture(session, connection, createQuery(session, entity, specification, sort, columns));
+            final var sql = query.inline(session.unwrap(SharedSessionContractImplementor.class), connection);
+            if (sql.isEmpty()) {
+                log.debug("Query values can't be written as literals, not exported with COPY ({})", query.getSql());
+                return OptionalLong.empty();
+            }
+            log.debug("Export with COPY ({})", sql.get());
+            try {
+                outputStream.write(columns.stream().map(HiperBootExporter::escapeCsv).collect(Collectors.joining(",", "", "\n"))
+                        .getBytes(StandardCharsets.UTF_8));
+                final var rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY (" + sql.get() + ") TO STDOUT WITH (FORMAT csv)", outputStream);
+                outputStream.flush();
+                return OptionalLong.of(rows);
+            }
+            catch (IOException e) {
+                log.error("Export failed", e);
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static <T> CriteriaQuery<Tuple> createQuery(Session session, Class<T> entity, Specification<T> specification, Sort sort,
+            List<String> columns) {
+        final var cb = session.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final var root = query.from(entity);
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        final List<Selection<?>> selections = columns.stream().<Selection<?>>map(column -> HiperBootQueryExecutor.getPath(root, joins, column)).toList();
+        query.multiselect(selections);
+        if (nonNull(specification)) {
+            final var predicate = specification.toPredicate(root, query, cb);
+            if (nonNull(predicate)) {
+                query.where(predicate);
+            }
+        }
+        if (nonNull(sort) && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination;
+
+import static java.util.Objects.isNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ClassUtils;
+
+import com.hiperboot.db.filter.casting.TypeCasterFactory;
+import com.hiperboot.exception.HiperBootException;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Getter
+@ToString
+public final class KeysetCursor {
+    private static final int VERSION = 1;
+
+    private final String sort;
+    private final List<String> values;
+
+    private KeysetCursor(String sort, List<String> values) {
+        this.sort = sort;
+        this.values = List.copyOf(values);
+    }
+
+    public static KeysetCursor of(List<Sort.Order> orders, Object row) {
+        return of(orders, new BeanWrapperImpl(row)::getPropertyValue);
+    }
+
+    public static KeysetCursor of(List<Sort.Order> orders, Function<String, Object> properties) {
+        final var values = new ArrayList<String>();
+        for (Sort.Order order : orders) {
+            final var value = properties.apply(order.getProperty());
+            if (isNull(value)) {
+                log.error("Keyset pagination requires non-null values for sort field {}", order.getProperty());
+                throw new HiperBootException("Keyset pagination requires non-null values for sort field " + order.getProperty());
+            }
+            values.add(toCursorValue(value));
+        }
+        return new KeysetCursor(getSortSignature(orders), values);
+    }
+
+    // Timestamp.toString is not ISO, it is written as a LocalDateTime so the caster reads it back at full precision.
+    private static String toCursorValue(Object value) {
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+
+    public static KeysetCursor decode(String token) {
+        try (var input = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (input.readInt() != VERSION) {
+                throw new IOException("Unsupported cursor version");
+            }
+            final var sort = input.readUTF();
+            final var size = input.readInt();
+            final var values = new ArrayList<String>();
+            for (int i = 0; i < size; i++) {
+                values.add(input.readUTF());
+            }
+            return new KeysetCursor(sort, values);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            log.error("Invalid pagination cursor {}", token);
+            throw new HiperBootException("Invalid pagination cursor " + token);
+        }
+    }
+
+    public static String getSortSignature(List<Sort.Order> orders) {
+        return orders.stream().map(order -> order.getProperty() + ":" + order.getDirection()).collect(Collectors.joining(","));
+    }
+
+    public String encode() {
+        final var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeInt(VERSION);
+            output.writeUTF(sort);
+            output.writeInt(values.size());
+            for (String value : values) {
+                output.writeUTF(value);
+            }
+        }
+        catch (IOException e) {
+            throw new HiperBootException("Unable to encode pagination cursor");
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public Comparable<?> getValue(int index, Class<?> type) {
+        final var value = values.get(index);
+        final var valueType = ClassUtils.resolvePrimitiveIfNecessary(type);
+        try {
+            return parse(value, valueType);
+        }
+        catch (RuntimeException e) {
+            log.error("Invalid pagination cursor value {} for type {}", value, valueType.getSimpleName());
+            throw new HiperBootException("Invalid pagination cursor value " + value);
+        }
+    }
+
+    // Strings are compared as they are, the String caster upper-cases for the case-insensitive filters.
+    private static Comparable<?> parse(String value, Class<?> type) {
+        if (type.isEnum()) {
+            return Arrays.stream(type.getEnumConstants()).map(Enum.class::cast).filter(constant -> constant.name().equals(value)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown constant " + value));
+        }
+        if (String.class.equals(type)) {
+            return value;
+        }
+        final var caster = TypeCasterFactory.getCaster(type);
+        if (isNull(caster)) {
+            throw new IllegalArgumentException("Unsupported keyset sort type " + type.getName());
+        }
+        return caster.cast(value);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class KeysetPageRequest {
+    private final int limit;
+    private final List<Sort.Order> orders;
+    private final KeysetCursor cursor;
+    private final boolean backward;
+
+    public KeysetPageRequest(int limit, List<Sort.Order> orders, KeysetCursor cursor, boolean backward) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must not be less than one.");
+        }
+        this.limit = limit;
+        this.orders = List.copyOf(orders);
+        this.cursor = cursor;
+        this.backward = backward;
+    }
+
+    public Sort getQuerySort() {
+        if (!backward) {
+            return Sort.by(orders);
+        }
+        return Sort.by(orders.stream().map(order -> order.with(order.getDirection().isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC)).toList());
+    }
+
+    public KeysetCursor cursorOf(Object row) {
+        return KeysetCursor.of(orders, row);
+    }
+
+    public KeysetCursor cursorFrom(Function<String, Object> properties) {
+        return KeysetCursor.of(orders, properties);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hiperboot.exception.HiperBootException;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeysetSpecification {
+
+    // (a, b, id) > (:a, :b, :id) expanded as a > :a OR (a = :a AND b > :b) OR (a = :a AND b = :b AND id > :id),
+    // so mixed sort directions are supported.
+    public static <T> Specification<T> seek(KeysetPageRequest pageRequest) {
+        final var cursor = pageRequest.getCursor();
+        if (isNull(cursor)) {
+            return null;
+        }
+        final var orders = pageRequest.getOrders();
+        if (!KeysetCursor.getSortSignature(orders).equals(cursor.getSort()) || cursor.getValues().size() != orders.size()) {
+            log.error("Pagination cursor sorted by {} doesn't match the requested sort {}", cursor.getSort(), orders);
+            throw new HiperBootException("Pagination cursor doesn't match the requested sort");
+        }
+        return (root, query, cb) -> {
+            final List<Predicate> alternatives = new ArrayList<>();
+            final List<Predicate> equalities = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                final var path = getPath(root, orders.get(i).getProperty());
+                final var value = cursor.getValue(i, path.getJavaType());
+                final var forward = orders.get(i).getDirection().isAscending() != pageRequest.isBackward();
+
+                final List<Predicate> alternative = new ArrayList<>(equalities);
+                alternative.add(compare(cb, path, value, forward));
+                alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+                equalities.add(cb.equal(path, value));
+            }
+            return cb.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    public static boolean includesProperty(List<Sort.Order> orders, String property) {
+        return orders.stream().anyMatch(order -> order.getProperty().equals(property));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Path<?> path, Comparable value, boolean forward) {
+        final var expression = (Expression<Comparable>) path;
+        return forward ? cb.greaterThan(expression, value) : cb.lessThan(expression, value);
+    }
+
+    private static Path<?> getPath(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\.")) {
+            path = path.get(segment);
+        }
+        return path;
+    }
+}
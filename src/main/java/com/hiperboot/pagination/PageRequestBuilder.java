@@ -36,6 +36,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import com.hiperboot.exception.HiperBootException;
+import com.hiperboot.pagination.count.CappedCountStrategy;
+import com.hiperboot.pagination.count.CountStrategy;
+import com.hiperboot.pagination.count.EstimatedCountStrategy;
+import com.hiperboot.pagination.count.ExactCountStrategy;
+import com.hiperboot.pagination.count.WindowCountStrategy;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -50,6 +55,13 @@ public class PageRequestBuilder {
     public static final String OFFSET = "offset";
     public static final String PAGE_PAR = "_page";
     public static final String SORT = "sort";
+    public static final String AFTER = "after";
+    public static final String BEFORE = "before";
+    public static final String COUNT = "count";
+    public static final String COUNT_LIMIT = "countLimit";
+    public static final int DEFAULT_COUNT_LIMIT = 1000;
+    public static final String CONCURRENT = "concurrent";
+    public static final String TOTALS = "totals";
 
     private PageRequestBuilder() {
     }
@@ -110,6 +122,69 @@ public class PageRequestBuilder {
         return new OffsetBasedPageRequest(offset, validLimit, Sort.unsorted());
     }
 
+    public static boolean isCountDisabled(final Map<String, Object> page) {
+        return isNull(getCountStrategy(page));
+    }
+
+    public static CountStrategy getCountStrategy(final Map<String, Object> page) {
+        final var count = page.get(COUNT);
+        if (isNull(count)) {
+            return new ExactCountStrategy();
+        }
+        return switch (count.toString().trim().toLowerCase()) {
+            case "true", "exact" -> new ExactCountStrategy();
+            case "false", "none" -> null;
+            case "capped" -> new CappedCountStrategy(getCountLimit(page));
+            case "estimated" -> new EstimatedCountStrategy();
+            case "window" -> new WindowCountStrategy();
+            default -> {
+                log.error("Wrong count parameter " + count);
+                throw new HiperBootException("Wrong count parameter " + count);
+            }
+        };
+    }
+
+    private static int getCountLimit(final Map<String, Object> page) {
+        final var countLimit = page.get(COUNT_LIMIT);
+        return isNull(countLimit) ? DEFAULT_COUNT_LIMIT : Integer.parseInt(countLimit.toString());
+    }
+
+    public static boolean isTotalsEnabled(final Map<String, Object> page) {
+        final var totals = page.get(TOTALS);
+        return isNull(totals) || Boolean.parseBoolean(totals.toString());
+    }
+
+    public static boolean isConcurrent(final Map<String, Object> page) {
+        return Boolean.parseBoolean(String.valueOf(page.get(CONCURRENT)));
+    }
+
+    public static boolean isKeyset(final Map<String, Object> page) {
+        return page.containsKey(AFTER) || page.containsKey(BEFORE);
+    }
+
+    public static KeysetPageRequest getKeysetPageRequest(final Map<String, Object> page, String idAttribute) {
+        if (isNull(idAttribute)) {
+            log.error("Keyset pagination requires an entity with a single id attribute");
+            throw new HiperBootException("Keyset pagination requires an entity with a single id attribute");
+        }
+        if (nonNull(page.get(AFTER)) && nonNull(page.get(BEFORE))) {
+            log.error("Keyset pagination accepts either {} or {}, not both", AFTER, BEFORE);
+            throw new HiperBootException("Keyset pagination accepts either " + AFTER + " or " + BEFORE + ", not both");
+        }
+        final List<Sort.Order> orders = new ArrayList<>();
+        if (page.get(SORT) instanceof List<?> sortingFields) {
+            orders.addAll(mapSortingFields(sortingFields.stream().map(String::valueOf).map(PageRequestBuilder::getOrder).toList()));
+        }
+        if (!KeysetSpecification.includesProperty(orders, idAttribute)) {
+            orders.add(Sort.Order.asc(idAttribute));
+        }
+
+        final var backward = nonNull(page.get(BEFORE));
+        final var token = (String) page.get(backward ? BEFORE : AFTER);
+        final var cursor = isNull(token) || token.isBlank() ? null : KeysetCursor.decode(token);
+        return new KeysetPageRequest(getValidLimit((Integer) page.get(LIMIT)), orders, cursor, backward);
+    }
+
     private static List<Sort.Order> mapSortingFields(final List<Sort.Order> sortingFields) {
         final List<Sort.Order> mappedSortingFields = new ArrayList<>();
         sortingFields.forEach(order -> mapSortingField(order, mappedSortingFields));
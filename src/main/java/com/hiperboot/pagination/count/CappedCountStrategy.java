@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination.count;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Getter
+public class CappedCountStrategy implements CountStrategy {
+    private final int cap;
+
+    public CappedCountStrategy(int cap) {
+        if (cap < 1) {
+            log.error("Count cap must not be less than one.");
+            throw new IllegalArgumentException("Count cap must not be less than one.");
+        }
+        this.cap = cap;
+    }
+
+    // Reads at most cap + 1 rows, so a result above the cap is only a lower bound of the real total.
+    @Override
+    public <T> RowCount count(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable) {
+        final long effectiveCap = Math.max(cap, pageable.getOffset() + pageable.getPageSize());
+        final long rows = executor.countUpTo(entity, specification, effectiveCap + 1);
+        return rows > effectiveCap ? RowCount.approximate(rows) : RowCount.exact(rows);
+    }
+}
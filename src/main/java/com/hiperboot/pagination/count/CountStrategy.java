@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination.count;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+
+import jakarta.persistence.Tuple;
+
+public interface CountStrategy {
+    <T> RowCount count(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable);
+
+    // Page hooks: a strategy that reads the total from the page query itself returns the whole page here, empty
+    // means the page is read on its own and count() runs when the page does not tell the total.
+    default <T> Optional<Page<T>> findPage(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable,
+            boolean twoPhase) {
+        return Optional.empty();
+    }
+
+    default <T> Optional<Page<Tuple>> findTuplePage(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification,
+            List<String> paths, Pageable pageable, boolean distinct) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination.count;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.regex.Pattern;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+public class EstimatedCountStrategy implements CountStrategy {
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final CountStrategy fallback = new ExactCountStrategy();
+
+    // Postgres only: unfiltered queries read pg_class.reltuples, filtered ones the planner estimate of EXPLAIN.
+    // Other dialects, never analyzed tables and failed estimates fall back to an exact count.
+    @Override
+    public <T> RowCount count(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable) {
+        if (executor.getDialect() instanceof PostgreSQLDialect) {
+            try {
+                final long estimate = isNull(specification) ? getTableEstimate(executor, entity) : getPlanEstimate(executor, entity, specification);
+                if (estimate >= 0) {
+                    return RowCount.approximate(estimate);
+                }
+            }
+            catch (RuntimeException e) {
+                log.warn("Row estimate for {} failed, using an exact count: {}", entity.getSimpleName(), e.getMessage());
+            }
+        }
+        return fallback.count(executor, entity, specification, pageable);
+    }
+
+    private <T> long getTableEstimate(HiperBootQueryExecutor executor, Class<T> entity) {
+        final var sessionFactory = executor.getEntityManager().getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        final var persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(entity);
+        final var estimate = executor.getEntityManager()
+                .createNativeQuery("select cast(reltuples as bigint) from pg_class where oid = to_regclass(?1)")
+                .setParameter(1, persister.getIdentifierTableName())
+                .getResultList();
+        return estimate.isEmpty() || isNull(estimate.get(0)) ? -1 : ((Number) estimate.get(0)).longValue();
+    }
+
+    // EXPLAIN runs through a child session on the caller's connection, no second connection is taken from the pool.
+    private <T> long getPlanEstimate(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification) {
+        final var callerSession = executor.getEntityManager().unwrap(Session.class);
+        return callerSession.doReturningWork(connection -> {
+            try (var session = callerSession.getSessionFactory().withOptions()
+                    .connection(connection)
+                    .statementInspector(sql -> "explain " + sql)
+                    .openSession()) {
+                final var cb = session.getCriteriaBuilder();
+                final CriteriaQuery<String> query = cb.createQuery(String.class);
+                final var root = query.from(entity);
+                query.select(cb.literal("plan"));
+                final var predicate = specification.toPredicate(root, query, cb);
+                if (nonNull(predicate)) {
+                    query.where(predicate);
+                }
+                final var plan = session.createQuery(query).getResultList();
+                final var matcher = plan.isEmpty() ? null : PLAN_ROWS.matcher(plan.get(0));
+                return isNull(matcher) || !matcher.find() ? -1L : Long.parseLong(matcher.group(1));
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination.count;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+
+public class ExactCountStrategy implements CountStrategy {
+    @Override
+    public <T> RowCount count(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable) {
+        return RowCount.exact(executor.count(entity, specification));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination.count;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class RowCount {
+    private final long value;
+    private final boolean exact;
+
+    private RowCount(long value, boolean exact) {
+        this.value = value;
+        this.exact = exact;
+    }
+
+    public static RowCount exact(long value) {
+        return new RowCount(value, true);
+    }
+
+    public static RowCount approximate(long value) {
+        return new RowCount(value, false);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination.count;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+
+import jakarta.persistence.Tuple;
+import lombok.extern.log4j.Log4j2;
+
+// Reads the total from a count(*) over() column of the page query. The exact count only runs for an empty page,
+// and for every page on databases without window functions (HSQLDB).
+@Log4j2
+public class WindowCountStrategy implements CountStrategy {
+    @Override
+    public <T> RowCount count(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable) {
+        return RowCount.exact(executor.count(entity, specification));
+    }
+
+    @Override
+    public <T> Optional<Page<T>> findPage(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification, Pageable pageable,
+            boolean twoPhase) {
+        if (!supportsWindowFunctions(executor)) {
+            return Optional.empty();
+        }
+        return Optional.of(executor.findPageWithWindowTotal(entity, specification, pageable, twoPhase));
+    }
+
+    @Override
+    public <T> Optional<Page<Tuple>> findTuplePage(HiperBootQueryExecutor executor, Class<T> entity, Specification<T> specification,
+            List<String> paths, Pageable pageable, boolean distinct) {
+        if (!supportsWindowFunctions(executor)) {
+            return Optional.empty();
+        }
+        return Optional.of(executor.findTuplePageWithWindowTotal(entity, specification, paths, pageable, distinct));
+    }
+
+    private static boolean supportsWindowFunctions(HiperBootQueryExecutor executor) {
+        if (executor.getDialect().supportsWindowFunctions()) {
+            return true;
+        }
+        log.debug("{} has no window functions, the total is counted with a separate query", executor.getDialect().getClass().getSimpleName());
+        return false;
+    }
+}
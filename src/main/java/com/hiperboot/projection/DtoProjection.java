@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.projection;
+
+import static java.util.Objects.isNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import com.hiperboot.exception.HiperBootException;
+
+import jakarta.persistence.Tuple;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+// Maps the selected columns into a record or a closed interface projection. The select list comes from the
+// record components or interface getters, a component typed as another record or interface is a nested path.
+@Log4j2
+@Getter
+public class DtoProjection<R> {
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+    private static final Map<List<Class<?>>, DtoProjection<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<R> type;
+    private final FieldProjection fieldProjection;
+
+    private DtoProjection(Class<?> entity, Class<R> type) {
+        if (!type.isRecord() && !type.isInterface()) {
+            log.error("Projection {} must be a record or an interface", type.getSimpleName());
+            throw new IllegalArgumentException("Projection " + type.getSimpleName() + " must be a record or an interface");
+        }
+        this.type = type;
+        this.fieldProjection = new FieldProjection(entity, getPaths(type, ""));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R> DtoProjection<R> of(Class<?> entity, Class<R> type) {
+        return (DtoProjection<R>) CACHE.computeIfAbsent(List.of(entity, type), key -> new DtoProjection<>(entity, type));
+    }
+
+    public R map(Tuple tuple) {
+        final var row = fieldProjection.toMap(tuple);
+        if (type.isInterface()) {
+            return PROJECTION_FACTORY.createProjection(type, collapseNested(row));
+        }
+        return instantiate(type, row);
+    }
+
+    private static List<String> getPaths(Class<?> type, String prefix) {
+        final var paths = new ArrayList<String>();
+        getProperties(type).forEach((name, propertyType) -> {
+            if (isNested(propertyType)) {
+                paths.addAll(getPaths(propertyType, prefix + name + "."));
+            }
+            else {
+                paths.add(prefix + name);
+            }
+        });
+        return paths;
+    }
+
+    private static Map<String, Class<?>> getProperties(Class<?> type) {
+        final var properties = new LinkedHashMap<String, Class<?>>();
+        if (type.isRecord()) {
+            Arrays.stream(type.getRecordComponents()).forEach(component -> properties.put(component.getName(), component.getType()));
+            return properties;
+        }
+        final var information = PROJECTION_FACTORY.getProjectionInformation(type);
+        if (!information.isClosed()) {
+            log.error("Projection {} is open, only closed projections can be selected", type.getSimpleName());
+            throw new IllegalArgumentException("Projection " + type.getSimpleName() + " is open, only closed projections can be selected");
+        }
+        information.getInputProperties().forEach(descriptor -> properties.put(descriptor.getName(), descriptor.getPropertyType()));
+        return properties;
+    }
+
+    private static boolean isNested(Class<?> type) {
+        return type.isRecord() || (type.isInterface() && !type.getName().startsWith("java."));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R instantiate(Class<R> type, Map<String, Object> row) {
+        final var components = type.getRecordComponents();
+        final var arguments = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            final RecordComponent component = components[i];
+            final var value = row.get(component.getName());
+            if (value instanceof Map<?, ?> nested) {
+                arguments[i] = isEmpty(nested) ? null : instantiate(component.getType(), (Map<String, Object>) nested);
+            }
+            else {
+                arguments[i] = DefaultConversionService.getSharedInstance().convert(value, component.getType());
+            }
+        }
+        try {
+            final var constructor = type.getDeclaredConstructor(Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+            constructor.setAccessible(true);
+            return constructor.newInstance(arguments);
+        }
+        catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
+            log.error("Unable to create projection {}", type.getSimpleName(), e);
+            throw new HiperBootException("Unable to create projection " + type.getSimpleName());
+        }
+    }
+
+    // A left joined association that is missing reads as a nested map of nulls, it becomes a null nested projection.
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> collapseNested(Map<String, Object> row) {
+        final var collapsed = new LinkedHashMap<String, Object>();
+        row.forEach((key, value) -> collapsed.put(key,
+                value instanceof Map<?, ?> nested ? (isEmpty(nested) ? null : collapseNested((Map<String, Object>) nested)) : value));
+        return collapsed;
+    }
+
+    private static boolean isEmpty(Map<?, ?> row) {
+        return row.values().stream().allMatch(value -> isNull(value) || (value instanceof Map<?, ?> nested && isEmpty(nested)));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.projection;
+
+import static com.hiperboot.db.filter.DbFilterBuilder.FIELDS_PAR;
+import static com.hiperboot.db.metadata.EntityMetadataRegistry.getEntityMetadata;
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.hiperboot.exception.HiperBootException;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+// The columns selected instead of the whole entity, each one a property path such as "title" or "author.name".
+@Log4j2
+@Getter
+public class FieldProjection {
+
+    private final Class<?> entity;
+    private final List<String> fields;
+
+    public FieldProjection(Class<?> entity, List<String> fields) {
+        if (isNull(fields) || fields.isEmpty()) {
+            log.error("A projection requires at least one field");
+            throw new IllegalArgumentException("A projection requires at least one field");
+        }
+        fields.forEach(field -> validatePath(entity, field));
+        this.entity = entity;
+        this.fields = List.copyOf(new LinkedHashSet<>(fields));
+    }
+
+    public static boolean hasFields(Map<String, Object> filters) {
+        return !isNull(filters) && !isNull(filters.get(FIELDS_PAR));
+    }
+
+    public static FieldProjection of(Class<?> entity, Map<String, Object> filters) {
+        if (!hasFields(filters)) {
+            return null;
+        }
+        return new FieldProjection(entity, toPaths(FIELDS_PAR, filters.get(FIELDS_PAR)));
+    }
+
+    // Accepts a list of paths or a comma separated string, as sort does.
+    public static List<String> toPaths(String parameter, Object value) {
+        final var paths = new ArrayList<String>();
+        if (value instanceof String s) {
+            Arrays.stream(s.split(",")).map(String::trim).filter(path -> !path.isEmpty()).forEach(paths::add);
+        }
+        else if (value instanceof Collection<?> collection) {
+            collection.forEach(path -> paths.add(String.valueOf(path).trim()));
+        }
+        else {
+            log.error("{} must be a list of fields", parameter);
+            throw new IllegalArgumentException(parameter + " must be a list of fields");
+        }
+        return paths;
+    }
+
+    // Nested paths become nested maps, so a row reads like the entity it was taken from.
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toMap(Tuple tuple) {
+        final var row = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < fields.size(); i++) {
+            final var properties = fields.get(i).split("\\.");
+            var node = row;
+            for (int j = 0; j < properties.length - 1; j++) {
+                node = (LinkedHashMap<String, Object>) node.computeIfAbsent(properties[j], key -> new LinkedHashMap<String, Object>());
+            }
+            node.put(properties[properties.length - 1], tuple.get(i));
+        }
+        return row;
+    }
+
+    // Paths go through single valued associations and embeddables and end on a plain column, never on an entity.
+    // Returns the type of that column.
+    public static Class<?> validatePath(Class<?> entity, String path) {
+        Class<?> type = entity;
+        final var properties = path.split("\\.", -1);
+        for (int i = 0; i < properties.length; i++) {
+            final var attribute = getEntityMetadata(type).getAttribute(properties[i]);
+            if (isNull(attribute)) {
+                log.error("Unknown field {} on {}", path, entity.getSimpleName());
+                throw new HiperBootException("Unknown field " + path + " on " + entity.getSimpleName());
+            }
+            final var last = i == properties.length - 1;
+            if (attribute.isCollection() || (last && attribute.isAssociation())
+                || (!last && !attribute.isAssociation() && attribute.getAssociationKind() != PersistentAttributeType.EMBEDDED)) {
+                log.error("Field {} on {} is not a single column", path, entity.getSimpleName());
+                throw new HiperBootException("Field " + path + " on " + entity.getSimpleName() + " is not a single column");
+            }
+            type = attribute.getJavaType();
+        }
+        return type;
+    }
+}
@@ -15,40 +15,307 @@
  */
 package com.hiperboot.service;
 
-import static com.hiperboot.db.filter.DbFilterBuilder.getDbFilters;
+import static com.hiperboot.db.filter.DbFilterBuilder.FIELDS_PAR;
 import static com.hiperboot.pagination.PageRequestBuilder.extractPagination;
+import static com.hiperboot.pagination.PageRequestBuilder.getCountStrategy;
+import static com.hiperboot.pagination.PageRequestBuilder.getKeysetPageRequest;
 import static com.hiperboot.pagination.PageRequestBuilder.getPageRequest;
 import static com.hiperboot.pagination.PageRequestBuilder.getPagination;
+import static com.hiperboot.pagination.PageRequestBuilder.isConcurrent;
+import static com.hiperboot.pagination.PageRequestBuilder.isCountDisabled;
+import static com.hiperboot.pagination.PageRequestBuilder.isKeyset;
+import static com.hiperboot.pagination.PageRequestBuilder.isTotalsEnabled;
+import static com.hiperboot.util.StringUtils.toCamelCase;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.hiperboot.aggregate.AggregateFunction;
+import com.hiperboot.aggregate.AggregateResult;
+import com.hiperboot.aggregate.Aggregation;
+import com.hiperboot.aggregate.Measure;
 import com.hiperboot.db.domain.BasePage;
 import com.hiperboot.db.domain.BasePageImpl;
+import com.hiperboot.db.domain.CountedPageImpl;
+import com.hiperboot.db.domain.KeysetPagination;
+import com.hiperboot.db.domain.LazyPagination;
 import com.hiperboot.db.domain.PaginationImpl;
 import com.hiperboot.db.filter.DbFilter;
+import com.hiperboot.db.filter.DbFilterBuilder;
+import com.hiperboot.db.filter.FilterExpression;
+import com.hiperboot.db.filter.FilterOptimizer;
 import com.hiperboot.db.filter.HiperBootFilterGenerator;
+import com.hiperboot.db.metadata.EntityMetadataRegistry;
+import com.hiperboot.db.repository.ConcurrentCountExecutor;
+import com.hiperboot.db.repository.CursorPublisher;
+import com.hiperboot.db.repository.HiperBootQueryExecutor;
+import com.hiperboot.db.repository.PostgresSqlRenderer;
+import com.hiperboot.exception.HiperBootException;
+import com.hiperboot.export.ExportFormat;
+import com.hiperboot.export.HiperBootExporter;
+import com.hiperboot.export.PostgresCopyExporter;
+import com.hiperboot.pagination.KeysetCursor;
+import com.hiperboot.pagination.KeysetPageRequest;
+import com.hiperboot.pagination.KeysetSpecification;
+import com.hiperboot.pagination.OffsetBasedPageRequest;
+import com.hiperboot.pagination.count.CountStrategy;
+import com.hiperboot.pagination.count.ExactCountStrategy;
+import com.hiperboot.pagination.count.RowCount;
+import com.hiperboot.projection.DtoProjection;
+import com.hiperboot.projection.FieldProjection;
+import com.hiperboot.util.HiperBootExecutors;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
 
 //@Service
+@Log4j2
 public class HiperBootService<T> {
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 500;
 
     private final HiperBootFilterGenerator<T> filterGenerator;
     private final JpaSpecificationExecutor<T> jpaRepository;
+    private final HiperBootQueryExecutor queryExecutor;
+    @Setter
+    private ConcurrentCountExecutor concurrentCountExecutor;
+    @Setter
+    private int streamFetchSize = DEFAULT_STREAM_FETCH_SIZE;
+    @Setter
+    private Executor executor;
+    @Setter
+    private Duration asyncTimeout;
+    @Setter
+    private PlatformTransactionManager transactionManager;
 
     public HiperBootService(JpaSpecificationExecutor<T> jpaRepository) {
+        this(jpaRepository, null);
+    }
+
+    public HiperBootService(JpaSpecificationExecutor<T> jpaRepository, EntityManager entityManager) {
         super();
         this.filterGenerator = new HiperBootFilterGenerator<>();
         this.jpaRepository = jpaRepository;
+        this.queryExecutor = isNull(entityManager) ? null : new HiperBootQueryExecutor(entityManager);
     }
 
     public List<T> hiperBootFilter(Class<T> entity, Map<String, Object> filters) {
-        Specification<T> specifications = getSpecification(getDbFilters(entity, filters));
-        return jpaRepository.findAll(specifications);
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new ArrayList<>();
+        }
+        return jpaRepository.findAll(filterGenerator.getSpecification(expression));
+    }
+
+    public long hiperBootCount(Class<T> entity, Map<String, Object> filters) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return 0;
+        }
+        final var specification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        return getQueryExecutor().count(entity, isDistinctProjection(expression) ? HiperBootQueryExecutor.distinct(specification) : specification);
+    }
+
+    public boolean hiperBootExists(Class<T> entity, Map<String, Object> filters) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return false;
+        }
+        return getQueryExecutor().exists(entity, isNull(expression) ? null : filterGenerator.getSpecification(expression));
+    }
+
+    public Stream<T> hiperBootStream(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootStream(entity, filters, streamFetchSize);
+    }
+
+    // The stream holds an open cursor, callers must close it (try-with-resources) inside their transaction.
+    public Stream<T> hiperBootStream(Class<T> entity, Map<String, Object> filters, int fetchSize) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return Stream.empty();
+        }
+        final var specification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        return getQueryExecutor().stream(entity, specification, getSort(filters), fetchSize);
+    }
+
+    // Rows are read from a cursor as the subscriber requests them, see CursorPublisher.
+    public Flow.Publisher<T> hiperBootFilterPublisher(Class<T> entity, Map<String, Object> filters) {
+        return new CursorPublisher<>(getQueryExecutor().getEntityManager().getEntityManagerFactory(), transactionManager, getExecutor(), entity,
+                getCursorSpecification(entity, filters), getSort(filters), streamFetchSize);
+    }
+
+    public long hiperBootExport(Class<T> entity, Map<String, Object> filters, List<String> columns, ExportFormat format,
+            OutputStream outputStream) {
+        final var exporter = new HiperBootExporter(entity, columns, format);
+        try (var rows = hiperBootStream(entity, filters)) {
+            return exporter.export(rows, outputStream);
+        }
+    }
+
+    // CSV written by the database itself through COPY on Postgres when the query has no parameters, the cursor export
+    // otherwise.
+    public long hiperBootCopyExport(Class<T> entity, Map<String, Object> filters, List<String> columns, OutputStream outputStream) {
+        if (!PostgresCopyExporter.isSupported(getQueryExecutor().getDialect())) {
+            return hiperBootExport(entity, filters, columns, ExportFormat.CSV, outputStream);
+        }
+        HiperBootExporter.validate(entity, columns);
+        return new PostgresCopyExporter(getQueryExecutor().getEntityManager())
+                .export(entity, getCursorSpecification(entity, filters), getSort(filters), columns, outputStream)
+                .orElseGet(() -> hiperBootExport(entity, filters, columns, ExportFormat.CSV, outputStream));
+    }
+
+    // Walks every matching row in id order, batchSize rows at a time, seeking past the last id instead of using offsets.
+    // The persistence context is flushed and cleared after each chunk.
+    public long hiperBootForEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, Consumer<List<T>> consumer) {
+        return forEachBatch(entity, filters, batchSize, (specification, pageable, twoPhase) ->
+                getQueryExecutor().findSlice(entity, specification, pageable, twoPhase), KeysetPageRequest::cursorOf, chunk -> {
+            consumer.accept(chunk);
+            getQueryExecutor().flushAndClear();
+        });
+    }
+
+    // Only the ids are read here. Each chunk is loaded by id on a worker, with its own EntityManager and a read-only
+    // transaction that is rolled back: lazy associations can be read, but changes to the entities are not persisted.
+    // At most `workers` chunks are processed at a time, the next ids are read meanwhile.
+    public long hiperBootForEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, Consumer<List<T>> consumer, int workers) {
+        if (workers < 1) {
+            log.error("Workers must not be less than one.");
+            throw new IllegalArgumentException("Workers must not be less than one.");
+        }
+        final var entityManagerFactory = getQueryExecutor().getEntityManager().getEntityManagerFactory();
+        final var loadSpecification = getSpecification(entity, filters);
+        final var pool = HiperBootExecutors.newFixedExecutor("hiperboot-batch", workers);
+        final var permits = new Semaphore(workers);
+        final List<Future<?>> pending = new ArrayList<>();
+        try {
+            final var rows = forEachBatch(entity, filters, batchSize, (specification, pageable, twoPhase) -> {
+                final var ids = getQueryExecutor().findIds(entity, specification, pageable.getSort(), 0, pageable.getPageSize() + 1);
+                final var hasNext = ids.size() > pageable.getPageSize();
+                return new SliceImpl<>(hasNext ? new ArrayList<>(ids.subList(0, pageable.getPageSize())) : ids, pageable, hasNext);
+            }, (pageRequest, id) -> pageRequest.cursorFrom(property -> id), ids -> {
+                permits.acquireUninterruptibly();
+                try {
+                    pending.add(pool.submit(() -> {
+                        try {
+                            HiperBootQueryExecutor.inReadOnlyTransaction(entityManagerFactory, transactionManager, null, executor -> {
+                                consumer.accept(executor.findAllByIds(entity, loadSpecification, ids));
+                                return null;
+                            });
+                        }
+                        finally {
+                            permits.release();
+                        }
+                    }));
+                }
+                catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+                pending.removeIf(future -> future.isDone() && awaitBatch(future));
+            });
+            pending.forEach(this::awaitBatch);
+            return rows;
+        }
+        finally {
+            pending.forEach(future -> future.cancel(true));
+            pool.shutdown();
+        }
+    }
+
+    private boolean awaitBatch(Future<?> future) {
+        try {
+            future.get();
+            return true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HiperBootException("Interrupted while waiting for a batch");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            log.error("Batch processing failed", e.getCause());
+            throw new HiperBootException("Batch processing failed: " + e.getCause().getMessage());
+        }
+    }
+
+    private <R> long forEachBatch(Class<T> entity, Map<String, Object> filters, int batchSize, ChunkReader<T, R> reader,
+            BiFunction<KeysetPageRequest, R, KeysetCursor> cursorOf, Consumer<List<R>> consumer) {
+        final var idAttribute = EntityMetadataRegistry.getEntityMetadata(entity).getIdAttribute();
+        if (isNull(idAttribute)) {
+            log.error("Batch processing requires an entity with a single id attribute");
+            throw new HiperBootException("Batch processing requires an entity with a single id attribute");
+        }
+        var pageRequest = new KeysetPageRequest(batchSize, List.of(Sort.Order.asc(idAttribute)), null, false);
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return 0;
+        }
+        final var filterSpecification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        final var twoPhase = isTwoPhase(expression);
+
+        long rows = 0;
+        while (true) {
+            final Specification<T> specification = Specification.where(filterSpecification).and(KeysetSpecification.seek(pageRequest));
+            final var pageable = new OffsetBasedPageRequest(0, pageRequest.getLimit(), pageRequest.getQuerySort());
+            final var slice = reader.read(specification, pageable, twoPhase);
+            if (!slice.hasContent()) {
+                return rows;
+            }
+            final var chunk = new ArrayList<>(slice.getContent());
+            rows += chunk.size();
+            pageRequest = new KeysetPageRequest(batchSize, pageRequest.getOrders(), cursorOf.apply(pageRequest, chunk.get(chunk.size() - 1)), false);
+
+            consumer.accept(chunk);
+            if (!slice.hasNext()) {
+                return rows;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader<T, R> {
+        Slice<R> read(Specification<T> specification, Pageable pageable, boolean twoPhase);
     }
 
     public Page<T> hiperBootPageFilter(Class<T> entity, Map<String, Object> filters) {
@@ -56,19 +323,678 @@ public class HiperBootService<T> {
     }
 
     public Page<T> hiperBootPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
-        return jpaRepository.findAll(getSpecification(getDbFilters(entity, filters)), pageable);
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+        final var specification = filterGenerator.getSpecification(expression);
+        if (isTwoPhase(expression)) {
+            return findPage(entity, specification, pageable, new ExactCountStrategy(), true, null);
+        }
+        return jpaRepository.findAll(specification, pageable);
     }
 
     public BasePage hiperBootBasePageFilter(Class<T> entity, Map<String, Object> filters) {
-        final var listEntities = this.hiperBootPageFilter(entity, filters, getPageRequest(extractPagination(filters)));
+        if (FieldProjection.hasFields(filters)) {
+            return hiperBootFieldsBasePageFilter(entity, filters);
+        }
+        final var page = extractPagination(filters);
+        if (isKeyset(page)) {
+            final var idAttribute = EntityMetadataRegistry.getEntityMetadata(entity).getIdAttribute();
+            return hiperBootKeysetFilter(entity, filters, getKeysetPageRequest(page, idAttribute));
+        }
+        if (isCountDisabled(page) || !isTotalsEnabled(page)) {
+            final var slice = this.hiperBootSliceFilter(entity, filters, getPageRequest(page));
+            return new BasePageImpl(slice.getContent(), new PaginationImpl(slice));
+        }
+        final var countStrategy = getCountStrategy(page);
+        if (isConcurrent(page)) {
+            final var listEntities = this.hiperBootConcurrentPageFilter(entity, filters, getPageRequest(page), countStrategy);
+            return new BasePageImpl(listEntities.getContent(), new PaginationImpl(listEntities));
+        }
+        if (nonNull(queryExecutor)) {
+            return hiperBootLazyPageFilter(entity, filters, getPageRequest(page), countStrategy);
+        }
+        final var listEntities = this.hiperBootPageFilter(entity, filters, getPageRequest(page), countStrategy);
         return new BasePageImpl(listEntities.getContent(), new PaginationImpl(listEntities));
     }
 
+    // Only the page is read here, the count runs the first time the pagination totals are read.
+    public BasePage hiperBootLazyPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable, CountStrategy countStrategy) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            final var empty = new CountedPageImpl<T>(new ArrayList<>(), pageable, 0, true, false);
+            return new BasePageImpl(empty.getContent(), new PaginationImpl(empty));
+        }
+        final var specification = filterGenerator.getSpecification(expression);
+        final var twoPhase = isTwoPhase(expression);
+        final var counted = countStrategy.findPage(getQueryExecutor(), entity, specification, pageable, twoPhase);
+        if (counted.isPresent()) {
+            return new BasePageImpl(counted.get().getContent(), new PaginationImpl(counted.get()));
+        }
+        final var slice = getQueryExecutor().findSlice(entity, specification, pageable, twoPhase);
+        final var countSpecification = twoPhase ? HiperBootQueryExecutor.distinct(specification) : specification;
+        return new BasePageImpl(slice.getContent(), new LazyPagination(slice,
+                () -> getRowCount(slice, () -> countStrategy.count(getQueryExecutor(), entity, countSpecification, pageable))));
+    }
+
+    public Page<T> hiperBootPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable, CountStrategy countStrategy) {
+        if (countStrategy instanceof ExactCountStrategy) {
+            return hiperBootPageFilter(entity, filters, pageable);
+        }
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new CountedPageImpl<>(new ArrayList<>(), pageable, 0, true, false);
+        }
+        return findPage(entity, filterGenerator.getSpecification(expression), pageable, countStrategy, isTwoPhase(expression), null);
+    }
+
+    // The data query runs on the calling thread, so its entities belong to the caller's persistence context, while
+    // the count runs at the same time on its own connection.
+    public Page<T> hiperBootConcurrentPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable, CountStrategy countStrategy) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new CountedPageImpl<>(new ArrayList<>(), pageable, 0, true, false);
+        }
+        return findPage(entity, filterGenerator.getSpecification(expression), pageable, countStrategy, isTwoPhase(expression),
+                getConcurrentCountExecutor());
+    }
+
+    private Page<T> findPage(Class<T> entity, Specification<T> specification, Pageable pageable, CountStrategy countStrategy, boolean twoPhase,
+            ConcurrentCountExecutor concurrentCounts) {
+        final var counted = countStrategy.findPage(getQueryExecutor(), entity, specification, pageable, twoPhase);
+        if (counted.isPresent()) {
+            return counted.get();
+        }
+        final var countSpecification = twoPhase ? HiperBootQueryExecutor.distinct(specification) : specification;
+        final Supplier<RowCount> sequentialCount = () -> countStrategy.count(getQueryExecutor(), entity, countSpecification, pageable);
+        final var pendingCount = isNull(concurrentCounts) ? null
+                : concurrentCounts.submit(getQueryExecutor().getEntityManager().getEntityManagerFactory(), transactionManager,
+                        executor -> countStrategy.count(executor, entity, countSpecification, pageable));
+
+        final Slice<T> slice;
+        try {
+            slice = getQueryExecutor().findSlice(entity, specification, pageable, twoPhase);
+        }
+        catch (RuntimeException e) {
+            if (nonNull(pendingCount)) {
+                pendingCount.cancel();
+            }
+            throw e;
+        }
+        if (nonNull(pendingCount) && isLastPage(slice)) {
+            pendingCount.cancel();
+        }
+        final var rowCount = getRowCount(slice, isNull(pendingCount) ? sequentialCount : () -> pendingCount.get(sequentialCount));
+        return new CountedPageImpl<>(slice.getContent(), pageable, rowCount.getValue(), rowCount.isExact(), slice.hasNext());
+    }
+
+    // A last page that is not empty already tells the total, no count is needed.
+    private static RowCount getRowCount(Slice<?> slice, Supplier<RowCount> count) {
+        if (isLastPage(slice)) {
+            return RowCount.exact(slice.getPageable().getOffset() + slice.getNumberOfElements());
+        }
+        return count.get();
+    }
+
+    private static boolean isLastPage(Slice<?> slice) {
+        return !slice.hasNext() && (slice.hasContent() || slice.getPageable().getOffset() == 0);
+    }
+
+    public Slice<T> hiperBootSliceFilter(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootSliceFilter(entity, filters, getPageRequest(getPagination(filters)));
+    }
+
+    public Slice<T> hiperBootSliceFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+        return getQueryExecutor().findSlice(entity, filterGenerator.getSpecification(expression), pageable, isTwoPhase(expression));
+    }
+
+    public BasePage hiperBootKeysetFilter(Class<T> entity, Map<String, Object> filters, KeysetPageRequest pageRequest) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new BasePageImpl(new ArrayList<>(), new KeysetPagination(pageRequest.getLimit(), null, null));
+        }
+        final Specification<T> specification = Specification.where(filterGenerator.getSpecification(expression))
+                .and(KeysetSpecification.seek(pageRequest));
+        final List<T> content;
+        final boolean hasMore;
+        if (isTwoPhase(expression)) {
+            final var pageable = new OffsetBasedPageRequest(0, pageRequest.getLimit(), pageRequest.getQuerySort());
+            final var slice = getQueryExecutor().findSlice(entity, specification, pageable, true);
+            content = new ArrayList<>(slice.getContent());
+            hasMore = slice.hasNext();
+        }
+        else {
+            final var rows = jpaRepository.findBy(specification,
+                    query -> query.sortBy(pageRequest.getQuerySort()).limit(pageRequest.getLimit() + 1).all());
+            content = new ArrayList<>(rows.subList(0, Math.min(rows.size(), pageRequest.getLimit())));
+            hasMore = rows.size() > pageRequest.getLimit();
+        }
+        return toKeysetPage(pageRequest, content, hasMore, pageRequest::cursorOf, Function.identity());
+    }
+
+    private static <R> BasePage toKeysetPage(KeysetPageRequest pageRequest, List<R> rows, boolean hasMore,
+            Function<R, KeysetCursor> cursorOf, Function<R, ?> toData) {
+        if (pageRequest.isBackward()) {
+            Collections.reverse(rows);
+        }
+        final var hasNext = pageRequest.isBackward() ? !rows.isEmpty() : hasMore;
+        final var hasPrevious = pageRequest.isBackward() ? hasMore : nonNull(pageRequest.getCursor()) && !rows.isEmpty();
+
+        final var nextCursor = hasNext ? cursorOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        final var previousCursor = hasPrevious ? cursorOf.apply(rows.get(0)).encode() : null;
+        final var data = rows.stream().map(toData).collect(Collectors.toCollection(ArrayList::new));
+        return new BasePageImpl(data, new KeysetPagination(pageRequest.getLimit(), nextCursor, previousCursor));
+    }
+
     public BasePage hiperBootBasePageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        if (FieldProjection.hasFields(filters)) {
+            final var rows = hiperBootFieldsPageFilter(entity, filters, pageable);
+            return new BasePageImpl(rows.getContent(), new PaginationImpl(rows));
+        }
         final var listEntities = this.hiperBootPageFilter(entity, filters, pageable);
         return new BasePageImpl(listEntities.getContent(), new PaginationImpl(listEntities));
     }
 
+    // Only the columns listed in _fields are read, each row comes back as a map instead of a managed entity.
+    public List<Map<String, Object>> hiperBootFieldsFilter(Class<T> entity, Map<String, Object> filters) {
+        final var projection = getFieldProjection(entity, filters);
+        return findProjected(entity, filters, projection, projection::toMap);
+    }
+
+    public Page<Map<String, Object>> hiperBootFieldsPageFilter(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootFieldsPageFilter(entity, filters, getPageRequest(getPagination(filters)));
+    }
+
+    public Page<Map<String, Object>> hiperBootFieldsPageFilter(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        final var projection = getFieldProjection(entity, filters);
+        return findProjectedPage(entity, filters, projection, projection::toMap, pageable);
+    }
+
+    // The select list comes from the record components or interface getters, see DtoProjection.
+    public <R> List<R> hiperBootFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        final var projection = DtoProjection.of(entity, projectionType);
+        return findProjected(entity, filters, projection.getFieldProjection(), projection::map);
+    }
+
+    public <R> Page<R> hiperBootPageFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return hiperBootPageFilter(entity, projectionType, filters, getPageRequest(getPagination(filters)));
+    }
+
+    public <R> Page<R> hiperBootPageFilter(Class<T> entity, Class<R> projectionType, Map<String, Object> filters, Pageable pageable) {
+        final var projection = DtoProjection.of(entity, projectionType);
+        return findProjectedPage(entity, filters, projection.getFieldProjection(), projection::map, pageable);
+    }
+
+    // Grouping and measures run in the database, see Aggregation for the _aggregate section.
+    public AggregateResult hiperBootAggregate(Class<T> entity, Map<String, Object> filters) {
+        return hiperBootAggregate(entity, filters, Aggregation.of(entity, filters));
+    }
+
+    public AggregateResult hiperBootAggregate(Class<T> entity, Map<String, Object> filters, Aggregation aggregation) {
+        final var rows = getQueryExecutor().aggregate(entity, getAggregateSpecification(entity, filters), aggregation).stream()
+                .<List<Object>>map(tuple -> new ArrayList<>(Arrays.asList(tuple.toArray())))
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new AggregateResult(aggregation.getColumns(), rows);
+    }
+
+    public List<Object> hiperBootDistinct(Class<T> entity, String fieldPath, Map<String, Object> filters, int limit) {
+        return hiperBootDistinct(entity, fieldPath, null, filters, limit);
+    }
+
+    public List<Object> hiperBootDistinct(Class<T> entity, String fieldPath, String prefix, Map<String, Object> filters, int limit) {
+        if (limit < 1) {
+            log.error("Distinct values require a limit greater than zero, got {}", limit);
+            throw new IllegalArgumentException("Distinct values require a limit greater than zero, got " + limit);
+        }
+        final var type = FieldProjection.validatePath(entity, fieldPath);
+        if (nonNull(prefix) && !prefix.isEmpty() && !String.class.equals(type)) {
+            log.error("Prefix filtering needs a text field, {} on {} is {}", fieldPath, entity.getSimpleName(), type.getSimpleName());
+            throw new HiperBootException("Prefix filtering needs a text field, " + fieldPath + " on " + entity.getSimpleName() + " is "
+                                         + type.getSimpleName());
+        }
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new ArrayList<>();
+        }
+        return getQueryExecutor().findDistinct(entity, isNull(expression) ? null : filterGenerator.getSpecification(expression), fieldPath,
+                prefix, limit);
+    }
+
+    // value -> count for each facet field. A facet is counted without its own top level condition, as search UIs
+    // expect, so the other values of that field stay visible. Facets that share the whole filter are counted in one
+    // GROUPING SETS statement on Postgres, the other counts run at the same time, each on its own connection.
+    public Map<String, Map<Object, Long>> hiperBootFacets(Class<T> entity, Map<String, Object> filters, List<String> facets) {
+        final var counts = getFacetCounts(entity, filters, facets);
+        final var results = new HashMap<String, Map<Object, Long>>();
+        if (counts.size() == 1) {
+            results.putAll(counts.get(0).apply(this));
+        }
+        else {
+            // A count the executor turns down runs on the calling thread instead.
+            final var futures = counts.stream().map(count -> {
+                final var future = async(entity, count);
+                return isRejected(future) ? CompletableFuture.supplyAsync(() -> count.apply(this), Runnable::run) : future;
+            }).toList();
+            try {
+                futures.forEach(future -> results.putAll(future.join()));
+            }
+            catch (CompletionException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return inFacetOrder(facets, results);
+    }
+
+    private List<Function<HiperBootService<T>, Map<String, Map<Object, Long>>>> getFacetCounts(Class<T> entity, Map<String, Object> filters,
+            List<String> facets) {
+        if (isNull(facets) || facets.isEmpty()) {
+            log.error("Facets require at least one field");
+            throw new IllegalArgumentException("Facets require at least one field");
+        }
+        final var shared = new ArrayList<String>();
+        final var separate = new LinkedHashMap<String, Map<String, Object>>();
+        facets.stream().distinct().forEach(facet -> {
+            final var type = FieldProjection.validatePath(entity, facet);
+            final var facetFilters = isNull(filters) ? null : withoutFilter(filters, facet.split("\\."), 0);
+            if (Objects.equals(facetFilters, filters) && HiperBootQueryExecutor.isGroupingSetsType(type)) {
+                shared.add(facet);
+            }
+            else {
+                separate.put(facet, facetFilters);
+            }
+        });
+        if (shared.size() < 2 || !PostgresSqlRenderer.isSupported(getQueryExecutor().getDialect())) {
+            shared.forEach(facet -> separate.put(facet, filters));
+            shared.clear();
+        }
+
+        final List<Function<HiperBootService<T>, Map<String, Map<Object, Long>>>> counts = new ArrayList<>();
+        if (!shared.isEmpty()) {
+            counts.add(service -> service.countFacetsByGroupingSets(entity, filters, shared));
+        }
+        separate.forEach((facet, facetFilters) -> counts.add(service -> Map.of(facet, service.countFacet(entity, facetFilters, facet))));
+        return counts;
+    }
+
+    private static Map<String, Map<Object, Long>> inFacetOrder(List<String> facets, Map<String, Map<Object, Long>> results) {
+        final var facetCounts = new LinkedHashMap<String, Map<Object, Long>>();
+        facets.forEach(facet -> facetCounts.put(facet, results.get(facet)));
+        return facetCounts;
+    }
+
+    private static boolean isRejected(CompletableFuture<?> future) {
+        return future.isCompletedExceptionally() && future.handle((value, error) -> error instanceof RejectedExecutionException).join();
+    }
+
+    private Map<Object, Long> countFacet(Class<T> entity, Map<String, Object> filters, String facet) {
+        final var aggregation = new Aggregation(entity, List.of(facet), List.of(new Measure(AggregateFunction.COUNT, null)));
+        final var counts = new LinkedHashMap<Object, Long>();
+        getQueryExecutor().aggregate(entity, getAggregateSpecification(entity, filters), aggregation)
+                .forEach(tuple -> counts.put(tuple.get(0), tuple.get(1, Long.class)));
+        return counts;
+    }
+
+    private Map<String, Map<Object, Long>> countFacetsByGroupingSets(Class<T> entity, Map<String, Object> filters, List<String> facets) {
+        final var counts = getQueryExecutor().countByGroupingSets(entity, getAggregateSpecification(entity, filters), facets);
+        final var facetCounts = new HashMap<String, Map<Object, Long>>();
+        for (int i = 0; i < facets.size(); i++) {
+            facetCounts.put(facets.get(i), counts.get(i));
+        }
+        return facetCounts;
+    }
+
+    // Drops the condition on the facet path from the top level AND, conditions inside groups are kept.
+    private static Map<String, Object> withoutFilter(Map<?, ?> filters, String[] properties, int index) {
+        final var remaining = new LinkedHashMap<String, Object>();
+        filters.forEach((key, value) -> {
+            final var name = key.toString();
+            if (!toCamelCase(name).equals(properties[index])) {
+                remaining.put(name, value);
+            }
+            else if (index < properties.length - 1) {
+                if (value instanceof Map<?, ?> nested) {
+                    final var nestedRemaining = withoutFilter(nested, properties, index + 1);
+                    if (!nestedRemaining.isEmpty()) {
+                        remaining.put(name, nestedRemaining);
+                    }
+                }
+                else {
+                    remaining.put(name, value);
+                }
+            }
+        });
+        return remaining;
+    }
+
+    // Aggregates see each root once: filters that join a collection are applied through an id subquery.
+    private Specification<T> getAggregateSpecification(Class<T> entity, Map<String, Object> filters) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        final var specification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        return isDistinctProjection(expression) ? HiperBootQueryExecutor.inSubquery(entity, specification) : specification;
+    }
+
+    private <R> List<R> findProjected(Class<T> entity, Map<String, Object> filters, FieldProjection projection, Function<Tuple, R> mapper) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new ArrayList<>();
+        }
+        final var specification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        return getQueryExecutor().createTupleQuery(entity, specification, projection.getFields(), getSort(filters), isDistinctProjection(expression))
+                .getResultList().stream()
+                .map(mapper)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private <R> Page<R> findProjectedPage(Class<T> entity, Map<String, Object> filters, FieldProjection projection, Function<Tuple, R> mapper,
+            Pageable pageable) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+        final var specification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        final var distinct = isDistinctProjection(expression);
+        final var slice = findProjectedSlice(entity, projection, mapper, specification, pageable, distinct);
+        final var countSpecification = distinct ? HiperBootQueryExecutor.distinct(specification) : specification;
+        final var rowCount = getRowCount(slice, () -> RowCount.exact(getQueryExecutor().count(entity, countSpecification)));
+        return new PageImpl<>(slice.getContent(), pageable, rowCount.getValue());
+    }
+
+    // Same routing as hiperBootBasePageFilter, with maps as data. Totals are lazy unless the count strategy reads
+    // them with the page.
+    private BasePage hiperBootFieldsBasePageFilter(Class<T> entity, Map<String, Object> filters) {
+        final var projection = getFieldProjection(entity, filters);
+        final var page = extractPagination(filters);
+        if (isKeyset(page)) {
+            final var idAttribute = EntityMetadataRegistry.getEntityMetadata(entity).getIdAttribute();
+            return hiperBootFieldsKeysetFilter(entity, filters, projection, getKeysetPageRequest(page, idAttribute));
+        }
+        final var pageable = getPageRequest(page);
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            final var empty = new CountedPageImpl<Map<String, Object>>(new ArrayList<>(), pageable, 0, true, false);
+            return new BasePageImpl(empty.getContent(), new PaginationImpl(empty));
+        }
+        final var specification = isNull(expression) ? null : filterGenerator.getSpecification(expression);
+        final var distinct = isDistinctProjection(expression);
+        final var countStrategy = isCountDisabled(page) || !isTotalsEnabled(page) ? null : getCountStrategy(page);
+        if (nonNull(countStrategy)) {
+            final var counted = countStrategy.findTuplePage(getQueryExecutor(), entity, specification, projection.getFields(), pageable, distinct);
+            if (counted.isPresent()) {
+                final var rows = counted.get().map(projection::toMap);
+                return new BasePageImpl(rows.getContent(), new PaginationImpl(rows));
+            }
+        }
+        final var slice = findProjectedSlice(entity, projection, projection::toMap, specification, pageable, distinct);
+        if (isNull(countStrategy)) {
+            return new BasePageImpl(slice.getContent(), new PaginationImpl(slice));
+        }
+        final var countSpecification = distinct ? HiperBootQueryExecutor.distinct(specification) : specification;
+        return new BasePageImpl(slice.getContent(), new LazyPagination(slice,
+                () -> getRowCount(slice, () -> countStrategy.count(getQueryExecutor(), entity, countSpecification, pageable))));
+    }
+
+    // The sort columns are selected after the projected ones, the cursors are read from them.
+    private BasePage hiperBootFieldsKeysetFilter(Class<T> entity, Map<String, Object> filters, FieldProjection projection,
+            KeysetPageRequest pageRequest) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return new BasePageImpl(new ArrayList<>(), new KeysetPagination(pageRequest.getLimit(), null, null));
+        }
+        final Specification<T> specification = Specification.where(isNull(expression) ? null : filterGenerator.getSpecification(expression))
+                .and(KeysetSpecification.seek(pageRequest));
+        final var paths = new ArrayList<>(projection.getFields());
+        pageRequest.getOrders().stream().map(Sort.Order::getProperty).filter(property -> !paths.contains(property)).forEach(paths::add);
+
+        final var rows = getQueryExecutor().createTupleQuery(entity, specification, paths, pageRequest.getQuerySort(), isDistinctProjection(expression))
+                .setMaxResults(pageRequest.getLimit() + 1)
+                .getResultList();
+        final var content = new ArrayList<>(rows.subList(0, Math.min(rows.size(), pageRequest.getLimit())));
+        return toKeysetPage(pageRequest, content, rows.size() > pageRequest.getLimit(),
+                tuple -> pageRequest.cursorFrom(property -> tuple.get(paths.indexOf(property))), projection::toMap);
+    }
+
+    private <R> Slice<R> findProjectedSlice(Class<T> entity, FieldProjection projection, Function<Tuple, R> mapper,
+            Specification<T> specification, Pageable pageable, boolean distinct) {
+        final var slice = getQueryExecutor().findTupleSlice(entity, specification, projection.getFields(), pageable, distinct);
+        return new SliceImpl<>(slice.getContent().stream().map(mapper).collect(Collectors.toCollection(ArrayList::new)), pageable, slice.hasNext());
+    }
+
+    private static FieldProjection getFieldProjection(Class<?> entity, Map<String, Object> filters) {
+        final var projection = FieldProjection.of(entity, filters);
+        if (isNull(projection)) {
+            log.error("A projection requires the {} parameter", FIELDS_PAR);
+            throw new IllegalArgumentException("A projection requires the " + FIELDS_PAR + " parameter");
+        }
+        return projection;
+    }
+
+    public CompletableFuture<List<T>> hiperBootFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootFilter(entity, filters));
+    }
+
+    public CompletableFuture<Page<T>> hiperBootPageFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootPageFilter(entity, filters));
+    }
+
+    public CompletableFuture<Page<T>> hiperBootPageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return async(entity, service -> service.hiperBootPageFilter(entity, filters, pageable));
+    }
+
+    public CompletableFuture<Slice<T>> hiperBootSliceFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootSliceFilter(entity, filters));
+    }
+
+    public CompletableFuture<Slice<T>> hiperBootSliceFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return async(entity, service -> service.hiperBootSliceFilter(entity, filters, pageable));
+    }
+
+    public CompletableFuture<BasePage> hiperBootBasePageFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> withTotals(service.hiperBootBasePageFilter(entity, filters)));
+    }
+
+    public CompletableFuture<BasePage> hiperBootBasePageFilterAsync(Class<T> entity, Map<String, Object> filters, Pageable pageable) {
+        return async(entity, service -> withTotals(service.hiperBootBasePageFilter(entity, filters, pageable)));
+    }
+
+    public CompletableFuture<Long> hiperBootCountAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootCount(entity, filters));
+    }
+
+    public CompletableFuture<Boolean> hiperBootExistsAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootExists(entity, filters));
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> hiperBootFieldsFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootFieldsFilter(entity, filters));
+    }
+
+    public CompletableFuture<Page<Map<String, Object>>> hiperBootFieldsPageFilterAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootFieldsPageFilter(entity, filters));
+    }
+
+    public CompletableFuture<Page<Map<String, Object>>> hiperBootFieldsPageFilterAsync(Class<T> entity, Map<String, Object> filters,
+            Pageable pageable) {
+        return async(entity, service -> service.hiperBootFieldsPageFilter(entity, filters, pageable));
+    }
+
+    public <R> CompletableFuture<List<R>> hiperBootFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootFilter(entity, projectionType, filters));
+    }
+
+    public <R> CompletableFuture<Page<R>> hiperBootPageFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootPageFilter(entity, projectionType, filters));
+    }
+
+    public <R> CompletableFuture<Page<R>> hiperBootPageFilterAsync(Class<T> entity, Class<R> projectionType, Map<String, Object> filters,
+            Pageable pageable) {
+        return async(entity, service -> service.hiperBootPageFilter(entity, projectionType, filters, pageable));
+    }
+
+    public CompletableFuture<AggregateResult> hiperBootAggregateAsync(Class<T> entity, Map<String, Object> filters) {
+        return async(entity, service -> service.hiperBootAggregate(entity, filters));
+    }
+
+    public CompletableFuture<AggregateResult> hiperBootAggregateAsync(Class<T> entity, Map<String, Object> filters, Aggregation aggregation) {
+        return async(entity, service -> service.hiperBootAggregate(entity, filters, aggregation));
+    }
+
+    public CompletableFuture<List<Object>> hiperBootDistinctAsync(Class<T> entity, String fieldPath, Map<String, Object> filters, int limit) {
+        return async(entity, service -> service.hiperBootDistinct(entity, fieldPath, filters, limit));
+    }
+
+    public CompletableFuture<List<Object>> hiperBootDistinctAsync(Class<T> entity, String fieldPath, String prefix, Map<String, Object> filters,
+            int limit) {
+        return async(entity, service -> service.hiperBootDistinct(entity, fieldPath, prefix, filters, limit));
+    }
+
+    // The counts are started from here rather than from a worker, so they never wait on the executor they run on.
+    public CompletableFuture<Map<String, Map<Object, Long>>> hiperBootFacetsAsync(Class<T> entity, Map<String, Object> filters,
+            List<String> facets) {
+        final List<Function<HiperBootService<T>, Map<String, Map<Object, Long>>>> counts;
+        try {
+            counts = getFacetCounts(entity, filters, facets);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        final var futures = counts.stream().map(count -> async(entity, count)).toList();
+        final var facetCounts = CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).thenApply(done -> {
+            final var results = new HashMap<String, Map<Object, Long>>();
+            futures.forEach(future -> results.putAll(future.join()));
+            return inFacetOrder(facets, results);
+        });
+        futures.forEach(future -> future.whenComplete((value, error) -> {
+            if (nonNull(error)) {
+                facetCounts.completeExceptionally(error);
+            }
+        }));
+        facetCounts.whenComplete((value, error) -> {
+            if (nonNull(error)) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        return facetCounts;
+    }
+
+    // The transaction is gone once the future completes, lazy totals have to be counted before.
+    private static BasePage withTotals(BasePage page) {
+        if (page.getPagination() instanceof LazyPagination pagination) {
+            pagination.getTotalRows();
+        }
+        return page;
+    }
+
+    // Runs the call on the executor with its own EntityManager and read-only transaction, on a service with the same
+    // settings as this one. The results come back detached. Cancelling the future, or completing it exceptionally
+    // (orTimeout...), cancels the running statement.
+    private <R> CompletableFuture<R> async(Class<T> entity, Function<HiperBootService<T>, R> work) {
+        final var entityManagerFactory = getQueryExecutor().getEntityManager().getEntityManagerFactory();
+        final var result = new CompletableFuture<R>();
+        final var running = new AtomicReference<Session>();
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    result.complete(HiperBootQueryExecutor.inReadOnlyTransaction(entityManagerFactory, transactionManager, asyncTimeout, queryExecutor -> {
+                        final var entityManager = queryExecutor.getEntityManager();
+                        running.set(entityManager.unwrap(Session.class));
+                        if (result.isDone()) {
+                            return null;
+                        }
+                        final var service = new HiperBootService<>(new SimpleJpaRepository<>(entity, entityManager), entityManager);
+                        service.executor = executor;
+                        service.asyncTimeout = asyncTimeout;
+                        service.concurrentCountExecutor = concurrentCountExecutor;
+                        service.streamFetchSize = streamFetchSize;
+                        service.transactionManager = transactionManager;
+                        return work.apply(service);
+                    }));
+                }
+                catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+                finally {
+                    running.set(null);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete((value, error) -> {
+            final var session = running.get();
+            if (nonNull(error) && nonNull(session)) {
+                cancelQuery(session);
+            }
+        });
+        return isNull(asyncTimeout) ? result : result.orTimeout(asyncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void cancelQuery(Session session) {
+        try {
+            session.cancelQuery();
+        }
+        catch (RuntimeException e) {
+            log.debug("Could not cancel the running query: {}", e.getMessage());
+        }
+    }
+
+    public Specification<T> getSpecification(Class<T> entity, Map<String, Object> filters) {
+        final var expression = getFilterExpression(entity, filters);
+        return isNull(expression) ? null : filterGenerator.getSpecification(expression);
+    }
+
+    // Paginating a fetch join on a collection makes Hibernate apply the limit in memory, switch to id-then-fetch.
+    private boolean isTwoPhase(FilterExpression expression) {
+        return nonNull(queryExecutor) && nonNull(expression) && filterGenerator.fetchesCollection(expression);
+    }
+
+    private boolean isDistinctProjection(FilterExpression expression) {
+        return nonNull(expression) && filterGenerator.joinsCollection(expression);
+    }
+
+    // Matches nothing when the filters contradict each other, everything when there are none.
+    private Specification<T> getCursorSpecification(Class<T> entity, Map<String, Object> filters) {
+        final var expression = getFilterExpression(entity, filters);
+        if (FilterOptimizer.isContradiction(expression)) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return isNull(expression) ? null : filterGenerator.getSpecification(expression);
+    }
+
+    private static Sort getSort(Map<String, Object> filters) {
+        return isNull(filters) ? null : getPageRequest(getPagination(filters)).getSort();
+    }
+
+    private Executor getExecutor() {
+        return isNull(executor) ? HiperBootExecutors.getDefault() : executor;
+    }
+
+    private ConcurrentCountExecutor getConcurrentCountExecutor() {
+        return isNull(concurrentCountExecutor) ? ConcurrentCountExecutor.getDefault() : concurrentCountExecutor;
+    }
+
+    private HiperBootQueryExecutor getQueryExecutor() {
+        if (isNull(queryExecutor)) {
+            log.error("This operation requires an EntityManager, create the service with HiperBootService(repository, entityManager)");
+            throw new HiperBootException("This operation requires an EntityManager, create the service with HiperBootService(repository, entityManager)");
+        }
+        return queryExecutor;
+    }
+
+    private FilterExpression getFilterExpression(Class<T> entity, Map<String, Object> filters) {
+        return FilterOptimizer.optimize(DbFilterBuilder.getFilterExpression(entity, filters));
+    }
+
     public Specification<T> getSpecification(List<DbFilter> filters) {
         return filterGenerator.getSpecificationFromFilters(filters);
     }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.service;
+
+import static java.util.Objects.nonNull;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hiperboot.db.repository.ConcurrentCountExecutor;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Settings for the services behind HiperBoot repositories. Declare it as a bean and HiperBootRepositoryFactoryBean
+// passes it to every repository, unset values keep the service defaults.
+@Getter
+@Setter
+public class HiperBootSettings {
+    private Executor executor;
+    private Duration asyncTimeout;
+    private ConcurrentCountExecutor concurrentCountExecutor;
+    private Integer streamFetchSize;
+    // Required with JTA persistence units, async calls, publishers and concurrent counts then open their read-only
+    // transactions through it.
+    private PlatformTransactionManager transactionManager;
+
+    public void applyTo(HiperBootService<?> service) {
+        if (nonNull(executor)) {
+            service.setExecutor(executor);
+        }
+        if (nonNull(asyncTimeout)) {
+            service.setAsyncTimeout(asyncTimeout);
+        }
+        if (nonNull(concurrentCountExecutor)) {
+            service.setConcurrentCountExecutor(concurrentCountExecutor);
+        }
+        if (nonNull(streamFetchSize)) {
+            service.setStreamFetchSize(streamFetchSize);
+        }
+        if (nonNull(transactionManager)) {
+            service.setTransactionManager(transactionManager);
+        }
+    }
+}
@@ -15,11 +15,21 @@
  */
 package com.hiperboot.util;
 
+import static com.hiperboot.aggregate.Aggregation.GROUP_BY;
+import static com.hiperboot.db.filter.DbFilterBuilder.AGGREGATE_PAR;
+import static com.hiperboot.db.filter.DbFilterBuilder.FIELDS_PAR;
+import static com.hiperboot.db.filter.DbFilterBuilder.OR_PAR;
+import static com.hiperboot.pagination.PageRequestBuilder.AFTER;
+import static com.hiperboot.pagination.PageRequestBuilder.BEFORE;
+import static com.hiperboot.pagination.PageRequestBuilder.CONCURRENT;
+import static com.hiperboot.pagination.PageRequestBuilder.COUNT;
+import static com.hiperboot.pagination.PageRequestBuilder.COUNT_LIMIT;
 import static com.hiperboot.pagination.PageRequestBuilder.DEFAULT_LIMIT;
 import static com.hiperboot.pagination.PageRequestBuilder.LIMIT;
 import static com.hiperboot.pagination.PageRequestBuilder.OFFSET;
 import static com.hiperboot.pagination.PageRequestBuilder.PAGE_PAR;
 import static com.hiperboot.pagination.PageRequestBuilder.SORT;
+import static com.hiperboot.pagination.PageRequestBuilder.TOTALS;
 import static com.hiperboot.pagination.PageRequestBuilder.createDefaultPage;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
@@ -82,6 +92,63 @@ public class HBUtils {
             }
             return this;
         }
+
+        public HBUtilBuilder count(boolean count) {
+            return putPageParameter(COUNT, count);
+        }
+
+        public HBUtilBuilder count(String countStrategy) {
+            return putPageParameter(COUNT, countStrategy);
+        }
+
+        public HBUtilBuilder countLimit(int countLimit) {
+            return putPageParameter(COUNT_LIMIT, countLimit);
+        }
+
+        public HBUtilBuilder totals(boolean totals) {
+            return putPageParameter(TOTALS, totals);
+        }
+
+        public HBUtilBuilder concurrent(boolean concurrent) {
+            return putPageParameter(CONCURRENT, concurrent);
+        }
+
+        public HBUtilBuilder after(String cursor) {
+            return putPageParameter(AFTER, cursor);
+        }
+
+        public HBUtilBuilder before(String cursor) {
+            return putPageParameter(BEFORE, cursor);
+        }
+
+        public HBUtilBuilder fields(String... fields) {
+            this.put(FIELDS_PAR, List.of(fields));
+            return this;
+        }
+
+        public HBUtilBuilder groupBy(String... fields) {
+            return putSectionParameter(AGGREGATE_PAR, GROUP_BY, List.of(fields));
+        }
+
+        public HBUtilBuilder aggregate(String function, String... fields) {
+            return putSectionParameter(AGGREGATE_PAR, function, fields.length == 0 ? Boolean.TRUE : List.of(fields));
+        }
+
+        private HBUtilBuilder putPageParameter(String key, Object value) {
+            createPage();
+            return putSectionParameter(PAGE_PAR, key, value);
+        }
+
+        // Sections are copied into a typed map, so no unchecked cast is needed to add to them.
+        private HBUtilBuilder putSectionParameter(String section, String key, Object value) {
+            final Map<String, Object> parameters = new LinkedHashMap<>();
+            if (this.get(section) instanceof Map<?, ?> current) {
+                current.forEach((name, parameter) -> parameters.put(name.toString(), parameter));
+            }
+            parameters.put(key, value);
+            this.put(section, parameters);
+            return this;
+        }
     }
 
     public static HBUtilBuilder sortedBy(String order) {
@@ -118,6 +185,10 @@ public class HBUtils {
         return HBUtilBuilder.of(mergedMap);
     }
 
+    public static HBUtilBuilder hbOr(HBUtilBuilder... values) {
+        return HBUtilBuilder.of(OR_PAR, List.of(values));
+    }
+
     public static HBUtilBuilder hbNot(HBUtilBuilder nested) {
         return HBUtilBuilder.of("NOT", nested);
     }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.util;
+
+import static java.util.Objects.isNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HiperBootExecutors {
+
+    private static ExecutorService defaultExecutor;
+
+    // Shared executor for the work HiperBoot runs off the calling thread, unless another one is configured.
+    public static synchronized ExecutorService getDefault() {
+        if (isNull(defaultExecutor)) {
+            defaultExecutor = newVirtualThreadExecutor("hiperboot");
+        }
+        return defaultExecutor;
+    }
+
+    // The library targets Java 17, virtual threads are used when the runtime provides them (Java 21+).
+    public static ExecutorService newVirtualThreadExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            log.debug("Virtual threads not available, using a bounded pool for {}", name);
+            return newBoundedExecutor(name, Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        }
+    }
+
+    // Rejects tasks once every thread is busy, so callers can fall back to running the work themselves.
+    public static ExecutorService newBoundedExecutor(String name, int maxThreads) {
+        return new ThreadPoolExecutor(0, maxThreads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreadFactory(name));
+    }
+
+    // A fixed number of threads behind an unbounded queue, submissions never get rejected while the pool is running.
+    public static ExecutorService newFixedExecutor(String name, int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), daemonThreadFactory(name));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        final var counter = new AtomicInteger();
+        return runnable -> {
+            final var thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -15,15 +15,24 @@
  */
 package com.hiperboot.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import com.hiperboot.db.repository.HiperBootRepositoryFactoryBean;
 import com.hiperboot.data_simulation.repository.hiperboot.MainTableHiperBootRepository;
+import com.hiperboot.service.HiperBootSettings;
 
 @Configuration
 @EnableJpaRepositories(repositoryFactoryBeanClass = HiperBootRepositoryFactoryBean.class, basePackageClasses = {
         MainTableHiperBootRepository.class
 })
 public class HiperBootRepositoryConfig {
+
+    @Bean
+    public HiperBootSettings hiperBootSettings() {
+        var settings = new HiperBootSettings();
+        settings.setExecutor(new CountingExecutor());
+        return settings;
+    }
 }
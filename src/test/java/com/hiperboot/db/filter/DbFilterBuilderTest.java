@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.filter;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.db.metadata.EntityMetadataRegistry;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+class DbFilterBuilderTest extends BaseTestClass {
+
+    // Not in the metamodel, its metadata comes from reflection.
+    static class Shelf {
+        private Long id;
+        private Set<Book> books;
+        private Author owner;
+    }
+
+    @Test
+    void shouldResolveCollectionAndAssociationFiltersFromRegistry() {
+        var books = DbFilterBuilder.getDbFilters(Author.class, nullFilter("books")).get(0);
+        var author = DbFilterBuilder.getDbFilters(Book.class, hbEquals("author.id", "4")).get(0);
+
+        assertThat(EntityMetadataRegistry.isEntity(Author.class)).isTrue();
+        assertThat(books.isEntity()).isTrue();
+        assertThat(books.getOperator()).isEqualTo(QueryOperator.EMPTY);
+        assertThat(author.isEntity()).isTrue();
+        assertThat(author.getOperator()).isEqualTo(QueryOperator.JOIN);
+    }
+
+    @Test
+    void shouldResolveFiltersFromReflectionForUnregisteredClasses() {
+        var books = DbFilterBuilder.getDbFilters(Shelf.class, nullFilter("books")).get(0);
+        var owner = DbFilterBuilder.getDbFilters(Shelf.class, hbEquals("owner.id", "4")).get(0);
+        var id = DbFilterBuilder.getDbFilters(Shelf.class, hbEquals("id", "4")).get(0);
+
+        assertThat(books.isEntity()).isTrue();
+        assertThat(books.getOperator()).isEqualTo(QueryOperator.EMPTY);
+        assertThat(owner.isEntity()).isTrue();
+        assertThat(owner.getOperator()).isEqualTo(QueryOperator.JOIN);
+        assertThat(id.isEntity()).isFalse();
+        assertThat(id.getOperator()).isEqualTo(QueryOperator.EQUALS);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void shouldKeepDeprecatedTypeChecks() {
+        assertThat(DbFilterBuilder.isCollectionInterface(List.class.toString())).isTrue();
+        assertThat(DbFilterBuilder.isCollectionInterface(ArrayList.class.toString())).isFalse();
+        assertThat(DbFilterBuilder.isCollectionInterface(Map.class.toString())).isFalse();
+        assertThat(DbFilterBuilder.hasAnnotation(Book.class.toString(), Entity.class)).isTrue();
+        assertThat(DbFilterBuilder.hasAnnotation(Book.class.getName(), Table.class)).isTrue();
+        assertThat(DbFilterBuilder.hasAnnotation(Shelf.class.toString(), Entity.class)).isFalse();
+        assertThat(DbFilterBuilder.hasAnnotation("class com.hiperboot.Missing", Entity.class)).isFalse();
+    }
+
+    private static Map<String, Object> nullFilter(String field) {
+        var filters = new HashMap<String, Object>();
+        filters.put(field, null);
+        return filters;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.filter;
+
+import static com.hiperboot.util.HBUtils.between;
+import static com.hiperboot.util.HBUtils.greaterThan;
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static com.hiperboot.util.HBUtils.hbNot;
+import static com.hiperboot.util.HBUtils.hbOr;
+import static com.hiperboot.util.HBUtils.smallerThan;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.util.HBUtils.HBUtilBuilder;
+
+class FilterOptimizerTest {
+
+    @Test
+    void shouldMergeRepeatedEqualsIntoIn() {
+        var expression = optimize(hbOr(hbEquals("title", "Emma"), hbEquals("title", "Persuasion"), hbEquals("title", "emma")));
+
+        var filter = (DbFilter) expression;
+        assertThat(filter.getOperator()).isEqualTo(QueryOperator.IN);
+        assertThat(filter.getValues()).isEqualTo(List.of("EMMA", "PERSUASION"));
+    }
+
+    @Test
+    void shouldIntersectRanges() {
+        var expression = optimize(and(greaterThan("price", "5"), between("price", "7", "30"), smallerThan("price", "20")));
+
+        var filter = (DbFilter) expression;
+        assertThat(filter.getOperator()).isEqualTo(QueryOperator.BETWEEN);
+        assertThat(filter.getValues()).isEqualTo(List.of("7", "20"));
+    }
+
+    @Test
+    void shouldIntersectValueListsWithRanges() {
+        var expression = optimize(and(hbEquals("id", "1", "2", "3"), hbEquals("id", "3", "2", "9"), greaterThan("id", "3")));
+
+        var filter = (DbFilter) expression;
+        assertThat(filter.getOperator()).isEqualTo(QueryOperator.EQUALS);
+        assertThat(filter.getValue()).isEqualTo("3");
+    }
+
+    @Test
+    void shouldRemoveDuplicatePredicates() {
+        var expression = optimize(and(hbEquals("title", "Emma"), hbEquals("title", "Emma")));
+
+        assertThat(expression).isInstanceOf(DbFilter.class);
+    }
+
+    @Test
+    void shouldDetectContradictions() {
+        assertThat(FilterOptimizer.isContradiction(optimize(between("price", "10", "5")))).isTrue();
+        assertThat(FilterOptimizer.isContradiction(optimize(and(hbEquals("id", "1"), hbEquals("id", "2"))))).isTrue();
+        assertThat(FilterOptimizer.isContradiction(optimize(and(greaterThan("id", "10"), smallerThan("id", "2"))))).isTrue();
+        assertThat(FilterOptimizer.isContradiction(optimize(hbOr(between("price", "10", "5"), hbEquals("id", "1"))))).isFalse();
+    }
+
+    @Test
+    void shouldNotTreatNegatedContradictionAsTautology() {
+        var expression = optimize(HBUtilBuilder.of("_not", List.of(between("price", "10", "5"))));
+
+        assertThat(FilterOptimizer.isContradiction(expression)).isFalse();
+        assertThat(expression).isNotEqualTo(FilterGroup.TRUE);
+    }
+
+    @Test
+    void shouldKeepNegatedFiltersUntouched() {
+        var expression = optimize(hbNot(hbEquals("id", "1", "2")));
+
+        var filter = (DbFilter) expression;
+        assertThat(filter.getOperator()).isEqualTo(QueryOperator.IN);
+        assertThat(filter.getWrappedLogicalOperator()).isEqualTo(LogicalOperator.NOT);
+    }
+
+    private static HBUtilBuilder and(HBUtilBuilder... values) {
+        return HBUtilBuilder.of("_and", List.of(values));
+    }
+
+    private static FilterExpression optimize(Map<String, Object> filters) {
+        return FilterOptimizer.optimize(DbFilterBuilder.getFilterExpression(Book.class, filters));
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.filter;
+
+import static com.hiperboot.db.filter.HiperBootFilterGenerator.padToPowerOfTwo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HiperBootFilterGeneratorTest {
+
+    @Test
+    void shouldPadInValuesToNextPowerOfTwo() {
+        assertThat(padToPowerOfTwo(List.of("A"))).containsExactly("A");
+        assertThat(padToPowerOfTwo(List.of("A", "B"))).containsExactly("A", "B");
+        assertThat(padToPowerOfTwo(List.of("A", "B", "C"))).containsExactly("A", "B", "C", "C");
+        assertThat(padToPowerOfTwo(List.of(1, 2, 3, 4, 5))).hasSize(8).endsWith(5, 5, 5, 5);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.aggregate.AggregateFunction;
+import com.hiperboot.aggregate.Aggregation;
+import com.hiperboot.aggregate.Measure;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+
+@Transactional
+class AggregateTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Test
+    void shouldGroupAndMeasureInTheDatabase() {
+        var books = bookHiperBootRepository.hiperBootFilter(Book.class, hbEquals("deleted", "false"));
+        Map<Long, Long> expectedCounts = new HashMap<>();
+        Map<Long, BigDecimal> expectedSums = new HashMap<>();
+        books.forEach(book -> {
+            expectedCounts.merge(book.getAuthor().getId(), 1L, Long::sum);
+            if (book.getPrice() != null) {
+                expectedSums.merge(book.getAuthor().getId(), book.getPrice(), BigDecimal::add);
+            }
+        });
+
+        var result = bookHiperBootRepository.hiperBootAggregate(Book.class,
+                hbEquals("deleted", "false").groupBy("author.id").aggregate("count").aggregate("sum", "price"));
+
+        assertThat(result.getColumns()).containsExactly("author.id", "count", "sum(price)");
+        assertThat(result.getRows()).hasSize(expectedCounts.size());
+        assertThat(result.getRows()).extracting(row -> row.get(0)).isSortedAccordingTo(Comparator.comparing(id -> (Long) id));
+        result.getRows().forEach(row -> {
+            assertThat(row.get(1)).isEqualTo(expectedCounts.get((Long) row.get(0)));
+            assertThat((BigDecimal) row.get(2)).isEqualByComparingTo(expectedSums.getOrDefault((Long) row.get(0), BigDecimal.ZERO));
+        });
+    }
+
+    @Test
+    void shouldAggregateWithoutGroups() {
+        var books = bookHiperBootRepository.hiperBootFilter(Book.class, hbEquals("author.id", "4"));
+        var expectedMin = books.stream().map(Book::getPublished).filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+        var expectedMax = books.stream().map(Book::getPublished).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+
+        var result = bookHiperBootRepository.hiperBootAggregate(Book.class, hbEquals("author.id", "4"),
+                new Aggregation(Book.class, List.of(), List.of(new Measure(AggregateFunction.COUNT, null),
+                        new Measure(AggregateFunction.MIN, "published"), new Measure(AggregateFunction.MAX, "published"))));
+
+        assertThat(result.toMaps()).singleElement().satisfies(row -> {
+            assertThat(row).containsEntry("count", (long) books.size());
+            assertThat(row).containsEntry("min(published)", expectedMin);
+            assertThat(row).containsEntry("max(published)", expectedMax);
+        });
+    }
+
+    @Test
+    void shouldCountEachRootOnceWhenFilteringOnCollection() {
+        var expected = authorHiperBootRepository.hiperBootFilter(Author.class, hbEquals("books.deleted", "false")).size();
+
+        var result = authorHiperBootRepository.hiperBootAggregate(Author.class, hbEquals("books.deleted", "false").aggregate("count"));
+
+        assertThat(result.getRows()).singleElement().isEqualTo(List.of((long) expected));
+    }
+
+    @Test
+    void shouldRejectNumericMeasuresOnText() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootAggregate(Book.class, hbEquals("author.id", "4").aggregate("sum", "title")))
+                .hasMessageContaining("SUM can not be applied to title");
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootAggregate(Book.class, hbEquals("author.id", "4").aggregate("median", "price")))
+                .hasMessageContaining("Unknown aggregate function median");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.config.CountingExecutor;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.service.HiperBootService;
+import com.hiperboot.service.HiperBootSettings;
+
+import jakarta.persistence.EntityManager;
+
+class AsyncTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Autowired
+    private HiperBootSettings hiperBootSettings;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    record BookTitle(String title) {
+    }
+
+    @Test
+    void shouldFanOutIndependentQueries() {
+        var books = bookHiperBootRepository.hiperBootFilterAsync(Book.class, hbEquals("author.id", "4"));
+        var page = bookHiperBootRepository.hiperBootBasePageFilterAsync(Book.class, hbEquals("author.id", "4").offset(0).limit(2));
+        var authors = authorHiperBootRepository.hiperBootPageFilterAsync(Author.class, hbEquals("books.deleted", "false").limit(2));
+
+        assertThat(books).succeedsWithin(Duration.ofSeconds(10)).asList().hasSize(10);
+        assertThat(page.join().getData().size()).isEqualTo(2);
+        assertThat(page.join().getPagination().getTotalRows()).isEqualTo(10);
+        assertThat(authors.join().getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldKeepWorkingAfterCancellation() {
+        var cancelled = bookHiperBootRepository.hiperBootFilterAsync(Book.class, hbEquals("deleted", "false"));
+        cancelled.cancel(true);
+
+        assertThat(cancelled).isCancelled();
+        assertThat(bookHiperBootRepository.hiperBootSliceFilterAsync(Book.class, hbEquals("author.id", "4").limit(3)))
+                .succeedsWithin(Duration.ofSeconds(10))
+                .satisfies(slice -> assertThat(slice.getContent()).hasSize(3));
+    }
+
+    @Test
+    void shouldRunOnExecutorFromSettings() {
+        var executor = (CountingExecutor) hiperBootSettings.getExecutor();
+        var before = executor.getCount();
+
+        assertThat(bookHiperBootRepository.hiperBootFilterAsync(Book.class, hbEquals("author.id", "4")))
+                .succeedsWithin(Duration.ofSeconds(10)).asList().hasSize(10);
+        assertThat(executor.getCount()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void shouldRunCountsAndAggregatesAsync() {
+        var filters = hbEquals("author.id", "4");
+
+        assertThat(bookHiperBootRepository.hiperBootCountAsync(Book.class, filters).join()).isEqualTo(10);
+        assertThat(bookHiperBootRepository.hiperBootExistsAsync(Book.class, hbEquals("author.id", "-1")).join()).isFalse();
+        assertThat(bookHiperBootRepository.hiperBootAggregateAsync(Book.class, hbEquals("author.id", "4").aggregate("count")).join().getRows())
+                .singleElement().isEqualTo(List.of(10L));
+        assertThat(bookHiperBootRepository.hiperBootDistinctAsync(Book.class, "author.name", filters, 10).join())
+                .isEqualTo(bookHiperBootRepository.hiperBootDistinct(Book.class, "author.name", filters, 10));
+        assertThat(bookHiperBootRepository.hiperBootFacetsAsync(Book.class, filters, List.of("deleted", "price")).join())
+                .isEqualTo(bookHiperBootRepository.hiperBootFacets(Book.class, filters, List.of("deleted", "price")));
+    }
+
+    @Test
+    void shouldRunProjectionsAsync() {
+        assertThat(bookHiperBootRepository.hiperBootFieldsFilterAsync(Book.class, hbEquals("author.id", "4").fields("title")).join())
+                .hasSize(10);
+        assertThat(bookHiperBootRepository.hiperBootFieldsPageFilterAsync(Book.class, hbEquals("author.id", "4").fields("title").limit(3))
+                .join().getContent()).hasSize(3);
+        assertThat(bookHiperBootRepository.hiperBootFilterAsync(Book.class, BookTitle.class, hbEquals("author.id", "4").sortedBy("title")).join())
+                .isEqualTo(bookHiperBootRepository.hiperBootFilter(Book.class, BookTitle.class, hbEquals("author.id", "4").sortedBy("title")));
+        assertThat(bookHiperBootRepository.hiperBootPageFilterAsync(Book.class, BookTitle.class, hbEquals("author.id", "4").limit(4))
+                .join().getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldFailFacetsAsyncOnUnknownField() {
+        assertThat(bookHiperBootRepository.hiperBootFacetsAsync(Book.class, hbEquals("author.id", "4"), List.of("isbn")))
+                .failsWithin(Duration.ofSeconds(10))
+                .withThrowableOfType(ExecutionException.class)
+                .withMessageContaining("Unknown field isbn");
+    }
+
+    @Test
+    void shouldOpenTransactionsThroughTransactionManager() {
+        var service = new HiperBootService<>(bookHiperBootRepository, entityManager);
+        service.setTransactionManager(transactionManager);
+
+        assertThat(service.hiperBootCountAsync(Book.class, hbEquals("author.id", "4"))).succeedsWithin(Duration.ofSeconds(10)).isEqualTo(10L);
+        assertThat(service.hiperBootFacetsAsync(Book.class, hbEquals("author.id", "4"), List.of("deleted", "price")).join())
+                .isEqualTo(bookHiperBootRepository.hiperBootFacets(Book.class, hbEquals("author.id", "4"), List.of("deleted", "price")));
+        assertThat(service.hiperBootPageFilter(Book.class, hbEquals("author.id", "4").limit(2).concurrent(true)).getTotalElements()).isEqualTo(10);
+    }
+}
\ No newline at end of file
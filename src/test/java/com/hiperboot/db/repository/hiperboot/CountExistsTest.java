@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.between;
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+
+@Transactional
+class CountExistsTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Test
+    void shouldCountLikeTheFilter() {
+        var filters = hbEquals("author.id", "4");
+
+        assertThat(bookHiperBootRepository.hiperBootCount(Book.class, filters))
+                .isEqualTo(bookHiperBootRepository.hiperBootFilter(Book.class, filters).size());
+        assertThat(bookHiperBootRepository.hiperBootCount(Book.class, new HashMap<>()))
+                .isEqualTo(bookHiperBootRepository.count());
+    }
+
+    @Test
+    void shouldCountEachRootOnceWhenJoiningACollection() {
+        var filters = hbEquals("books.deleted", "false");
+
+        assertThat(authorHiperBootRepository.hiperBootCount(Author.class, filters))
+                .isEqualTo(authorHiperBootRepository.hiperBootPageFilter(Author.class, filters).getTotalElements());
+    }
+
+    @Test
+    void shouldTellWhetherAnyRowMatches() {
+        assertThat(bookHiperBootRepository.hiperBootExists(Book.class, hbEquals("author.id", "4"))).isTrue();
+        assertThat(bookHiperBootRepository.hiperBootExists(Book.class, hbEquals("author.id", "-1"))).isFalse();
+        assertThat(authorHiperBootRepository.hiperBootExists(Author.class, hbEquals("books.deleted", "false"))).isTrue();
+    }
+
+    @Test
+    void shouldNotQueryWhenTheFiltersContradict() {
+        var filters = between("price", "10", "5");
+
+        assertThat(bookHiperBootRepository.hiperBootCount(Book.class, filters)).isZero();
+        assertThat(bookHiperBootRepository.hiperBootExists(Book.class, filters)).isFalse();
+    }
+}
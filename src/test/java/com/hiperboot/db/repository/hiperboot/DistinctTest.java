@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.exception.HiperBootException;
+
+@Transactional
+class DistinctTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Test
+    void shouldReturnDistinctValuesUnderTheFilters() {
+        var filters = hbEquals("deleted", "false");
+        var expected = bookHiperBootRepository.hiperBootFilter(Book.class, filters).stream()
+                .map(book -> book.getAuthor().getName()).filter(Objects::nonNull).distinct().toList();
+
+        var names = bookHiperBootRepository.hiperBootDistinct(Book.class, "author.name", filters, 100);
+
+        assertThat(names).containsExactlyInAnyOrderElementsOf(expected).isSorted();
+    }
+
+    @Test
+    void shouldFilterByPrefixAndLimit() {
+        var name = bookHiperBootRepository.hiperBootFilter(Book.class, hbEquals("author.id", "4")).get(0).getAuthor().getName();
+        var prefix = name.substring(0, 2);
+        var expected = bookHiperBootRepository.hiperBootFilter(Book.class, new HashMap<>()).stream()
+                .map(book -> book.getAuthor().getName()).filter(Objects::nonNull).filter(value -> value.startsWith(prefix)).distinct().toList();
+
+        var names = bookHiperBootRepository.hiperBootDistinct(Book.class, "author.name", prefix, new HashMap<>(), 100);
+
+        assertThat(names).contains(name).containsExactlyInAnyOrderElementsOf(expected).isSorted();
+        assertThat(bookHiperBootRepository.hiperBootDistinct(Book.class, "author.name", new HashMap<>(), 1)).hasSize(1);
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsInThePrefixLiterally() {
+        assertThat(bookHiperBootRepository.hiperBootDistinct(Book.class, "author.name", "%", new HashMap<>(), 20)).isEmpty();
+        assertThat(bookHiperBootRepository.hiperBootDistinct(Book.class, "author.name", "_", new HashMap<>(), 20)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectAPrefixOnANonTextField() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootDistinct(Book.class, "price", "1", new HashMap<>(), 20))
+                .isInstanceOf(HiperBootException.class)
+                .hasMessageContaining("text field");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+
+import jakarta.persistence.EntityManager;
+
+@Transactional
+class DtoProjectionTest extends BaseTestClass {
+
+    record AuthorView(Long id, String name) {
+    }
+
+    record BookView(String title, BigDecimal price, AuthorView author) {
+    }
+
+    interface BookSummary {
+        String getTitle();
+
+        AuthorSummary getAuthor();
+    }
+
+    interface AuthorSummary {
+        String getName();
+    }
+
+    static class BookBean {
+        private String title;
+    }
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldMapRowsIntoRecords() {
+        var expected = bookHiperBootRepository.hiperBootPageFilter(Book.class, hbEquals("author.id", "4").sortedBy("title"))
+                .getContent().stream().map(Book::getTitle).toList();
+        entityManager.clear();
+
+        var books = bookHiperBootRepository.hiperBootFilter(Book.class, BookView.class, hbEquals("author.id", "4").sortedBy("title"));
+
+        assertThat(books).extracting(BookView::title).containsExactlyElementsOf(expected);
+        assertThat(books).extracting(BookView::author).containsOnly(new AuthorView(4L, "Mark Twain"));
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void shouldMapRowsIntoInterfaceProjections() {
+        var page = bookHiperBootRepository.hiperBootPageFilter(Book.class, BookSummary.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(3));
+
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).allSatisfy(book -> {
+            assertThat(book.getTitle()).isNotBlank();
+            assertThat(book.getAuthor().getName()).isEqualTo("Mark Twain");
+        });
+    }
+
+    @Test
+    void shouldRejectProjectionsThatAreNotRecordsOrInterfaces() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootFilter(Book.class, BookBean.class, hbEquals("author.id", "4")))
+                .hasMessageContaining("must be a record or an interface");
+    }
+}
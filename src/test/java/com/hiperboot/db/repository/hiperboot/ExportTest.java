@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbAnd;
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static com.hiperboot.util.HBUtils.sortedBy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.export.ExportFormat;
+
+class ExportTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Test
+    void shouldExportCsvWithAssociationColumns() {
+        var output = new ByteArrayOutputStream();
+
+        var rows = bookHiperBootRepository.hiperBootExport(Book.class, hbEquals("author.id", "4").sortedBy("title"),
+                List.of("id", "title", "author.name"), ExportFormat.CSV, output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(10);
+        assertThat(lines).hasSize(11);
+        assertThat(lines[0]).isEqualTo("id,title,author.name");
+        assertThat(List.of(lines).subList(1, lines.length)).allMatch(line -> line.endsWith(",Mark Twain"));
+    }
+
+    @Test
+    void shouldExportNdjson() {
+        var output = new ByteArrayOutputStream();
+
+        bookHiperBootRepository.hiperBootExport(Book.class, hbEquals("author.id", "4"), List.of("id", "author.name"),
+                ExportFormat.NDJSON, output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(10);
+        assertThat(lines).allMatch(line -> line.matches("\\{\"id\":\\d+,\"author.name\":\"Mark Twain\"}"));
+    }
+
+    @Test
+    void shouldCopyExportSameBytesAsCursorExport() {
+        var cursorOutput = new ByteArrayOutputStream();
+        var copyOutput = new ByteArrayOutputStream();
+        var columns = List.of("id", "title", "author.name");
+
+        bookHiperBootRepository.hiperBootExport(Book.class, sortedBy("id"), columns, ExportFormat.CSV, cursorOutput);
+        var rows = bookHiperBootRepository.hiperBootCopyExport(Book.class, sortedBy("id"), columns, copyOutput);
+
+        assertThat(rows).isEqualTo(33);
+        assertThat(copyOutput.toByteArray()).isEqualTo(cursorOutput.toByteArray());
+    }
+
+    @Test
+    void shouldCopyExportFilteredRowsSameBytesAsCursorExport() {
+        var cursorOutput = new ByteArrayOutputStream();
+        var copyOutput = new ByteArrayOutputStream();
+        var columns = List.of("id", "title", "author.name");
+        var filters = hbAnd(hbEquals("author.name", "Mark Twain"), hbEquals("deleted", "false")).sortedBy("title");
+
+        bookHiperBootRepository.hiperBootExport(Book.class, filters, columns, ExportFormat.CSV, cursorOutput);
+        var rows = bookHiperBootRepository.hiperBootCopyExport(Book.class, filters, columns, copyOutput);
+
+        assertThat(rows).isEqualTo(10);
+        assertThat(copyOutput.toByteArray()).isEqualTo(cursorOutput.toByteArray());
+    }
+
+    @Test
+    void shouldCopyExportFilteredRowsWithCopy() {
+        var output = new ByteArrayOutputStream();
+
+        bookHiperBootRepository.hiperBootCopyExport(Book.class, hbEquals("author.id", "4"), List.of("id", "deleted"), output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(11);
+        // Postgres text format, the cursor export would write "false"
+        assertThat(List.of(lines).subList(1, lines.length)).allMatch(line -> line.endsWith(",f"));
+    }
+
+    @Test
+    void shouldCopyExportQuotedValuesAsLiterals() {
+        var cursorOutput = new ByteArrayOutputStream();
+        var copyOutput = new ByteArrayOutputStream();
+        var columns = List.of("id", "title");
+        var filters = hbEquals("title", "Tom's ? \\ --Sawyer");
+
+        bookHiperBootRepository.hiperBootExport(Book.class, filters, columns, ExportFormat.CSV, cursorOutput);
+        var rows = bookHiperBootRepository.hiperBootCopyExport(Book.class, filters, columns, copyOutput);
+
+        assertThat(rows).isZero();
+        assertThat(copyOutput.toByteArray()).isEqualTo(cursorOutput.toByteArray());
+    }
+
+    @Test
+    void shouldRejectCollectionColumns() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootExport(Book.class, hbEquals("author.id", "4"),
+                List.of("author.books"), ExportFormat.CSV, new ByteArrayOutputStream()))
+                .hasMessageContaining("author.books");
+    }
+}
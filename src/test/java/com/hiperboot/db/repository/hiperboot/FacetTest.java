@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbAnd;
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.service.HiperBootService;
+
+import jakarta.persistence.EntityManager;
+
+class FacetTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldExcludeEachFacetsOwnFilter() {
+        var facets = bookHiperBootRepository.hiperBootFacets(Book.class, hbAnd(hbEquals("author.id", "4"), hbEquals("deleted", "false")),
+                List.of("author.id", "deleted"));
+
+        assertThat(facets).containsOnlyKeys("author.id", "deleted");
+        assertThat(facets.get("author.id")).isEqualTo(countBy("author.id", hbEquals("deleted", "false")));
+        assertThat(facets.get("author.id")).hasSizeGreaterThan(1);
+        assertThat(facets.get("deleted")).isEqualTo(countBy("deleted", hbEquals("author.id", "4")));
+    }
+
+    @Test
+    void shouldCountFacetsSharingTheFilterTogether() {
+        var facets = bookHiperBootRepository.hiperBootFacets(Book.class, hbEquals("author.id", "4"), List.of("deleted", "price", "title"));
+
+        assertThat(facets.get("deleted")).isEqualTo(countBy("deleted", hbEquals("author.id", "4")));
+        assertThat(facets.get("price")).isEqualTo(countBy("price", hbEquals("author.id", "4")));
+        assertThat(facets.get("title")).isEqualTo(countBy("title", hbEquals("author.id", "4")));
+        assertThat(facets.get("title").values().stream().mapToLong(Long::longValue).sum()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldBindFilterValuesOfFacetsCountedTogether() {
+        var facets = bookHiperBootRepository.hiperBootFacets(Book.class, hbEquals("title", "Tom's ? \\ Sawyer"), List.of("deleted", "price"));
+
+        assertThat(facets.get("deleted")).isEmpty();
+        assertThat(facets.get("price")).isEmpty();
+    }
+
+    @Test
+    void shouldCountOnCallingThreadWhenExecutorRejects() {
+        var service = new HiperBootService<>(bookHiperBootRepository, entityManager);
+        service.setExecutor(command -> {
+            throw new RejectedExecutionException("busy");
+        });
+        var filters = hbAnd(hbEquals("author.id", "4"), hbEquals("deleted", "false"));
+
+        var facets = service.hiperBootFacets(Book.class, filters, List.of("author.id", "deleted"));
+
+        assertThat(facets).isEqualTo(bookHiperBootRepository.hiperBootFacets(Book.class, filters, List.of("author.id", "deleted")));
+    }
+
+    @Test
+    void shouldRejectUnknownFacets() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootFacets(Book.class, hbEquals("author.id", "4"), List.of("isbn")))
+                .hasMessageContaining("Unknown field isbn");
+    }
+
+    private Map<Object, Long> countBy(String field, Map<String, Object> filters) {
+        Map<Object, Long> counts = new HashMap<>();
+        bookHiperBootRepository.hiperBootFilter(Book.class, filters).forEach(book -> counts.merge(getValue(book, field), 1L, Long::sum));
+        return counts;
+    }
+
+    private static Object getValue(Book book, String field) {
+        return switch (field) {
+            case "author.id" -> book.getAuthor() == null ? null : book.getAuthor().getId();
+            case "deleted" -> book.getDeleted();
+            case "price" -> book.getPrice();
+            default -> book.getTitle();
+        };
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+
+class ForEachBatchTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Test
+    void shouldWalkAllRowsInIdOrder() {
+        List<Integer> sizes = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+
+        var rows = bookHiperBootRepository.hiperBootForEachBatch(Book.class, hbEquals("author.id", "4"), 3, chunk -> {
+            sizes.add(chunk.size());
+            chunk.forEach(book -> ids.add(book.getId()));
+        });
+
+        assertThat(rows).isEqualTo(10);
+        assertThat(sizes).containsExactly(3, 3, 3, 1);
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldProcessChunksOnWorkers() {
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+
+        var rows = bookHiperBootRepository.hiperBootForEachBatch(Book.class, hbEquals("deleted", "false"), 5,
+                chunk -> chunk.forEach(book -> ids.add(book.getId())), 2);
+
+        assertThat(rows).isEqualTo(32);
+        assertThat(ids).hasSize(32).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldReadLazyCollectionsOnWorkers() {
+        var filters = hbEquals("id", "3", "4");
+        AtomicInteger books = new AtomicInteger();
+
+        var rows = authorHiperBootRepository.hiperBootForEachBatch(Author.class, filters, 1,
+                chunk -> chunk.forEach(author -> books.addAndGet(author.getBooks().size())), 2);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(books.get()).isEqualTo(bookHiperBootRepository.hiperBootCount(Book.class, hbEquals("author.id", "3", "4")));
+    }
+
+    @Test
+    void shouldPropagateWorkerFailure() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootForEachBatch(Book.class, hbEquals("deleted", "false"), 5,
+                chunk -> {
+                    throw new IllegalStateException("failed chunk");
+                }, 2))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("failed chunk");
+    }
+}
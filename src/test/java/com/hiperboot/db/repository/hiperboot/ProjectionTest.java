@@ -0,0 +1,140 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.db.domain.BasePage;
+
+import jakarta.persistence.EntityManager;
+
+@Transactional
+class ProjectionTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldSelectOnlyTheListedFields() {
+        var expected = bookHiperBootRepository.hiperBootPageFilter(Book.class, hbEquals("author.id", "4").sortedBy("title"))
+                .getContent().stream().map(Book::getTitle).toList();
+        entityManager.clear();
+
+        var rows = bookHiperBootRepository.hiperBootFieldsFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").fields("title", "author.name"));
+
+        assertThat(rows).extracting(row -> row.get("title")).containsExactlyElementsOf(expected);
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row).containsOnlyKeys("title", "author");
+            assertThat(row.get("author")).isEqualTo(Map.of("name", "Mark Twain"));
+        });
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void shouldPaginateProjectedRows() {
+        var entities = bookHiperBootRepository.hiperBootPageFilter(Book.class, hbEquals("author.id", "4").sortedBy("title").offset(3).limit(4));
+
+        var rows = bookHiperBootRepository.hiperBootFieldsPageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(3).limit(4).fields("id", "title"));
+
+        assertThat(rows.getTotalElements()).isEqualTo(entities.getTotalElements());
+        assertThat(rows.getContent()).extracting(row -> row.get("id")).containsExactlyElementsOf(entities.getContent().stream().map(Book::getId).toList());
+    }
+
+    @Test
+    void shouldReturnMapsFromBasePageWhenFieldsAreGiven() {
+        BasePage page = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(4).fields("title"));
+
+        assertThat(rows(page)).hasSize(4).allMatch(row -> row.keySet().equals(Set.of("title")));
+        assertThat(page.getPagination().getTotalRows()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldKeepOneRowPerRootWhenFilteringOnCollection() {
+        var rows = authorHiperBootRepository.hiperBootFieldsPageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(10).fields("id", "name"));
+
+        assertThat(rows.getContent()).extracting(row -> row.get("id")).containsExactly(2L, 1L, 3L, 5L, 4L);
+        assertThat(rows.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReadWindowTotalOfProjectedRows() {
+        BasePage page = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(2).fields("id", "name").count("window"));
+
+        assertThat(rows(page)).extracting("id").containsExactly(2L, 1L);
+        assertThat(rows(page)).allMatch(row -> row.keySet().equals(Set.of("id", "name")));
+        assertThat(page.getPagination().getTotalRows()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldWalkKeysetPagesOfProjectedRows() {
+        List<Object> names = new ArrayList<>();
+        BasePage page = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").limit(2).after(null).fields("name"));
+        rows(page).forEach(row -> names.add(row.get("name")));
+
+        while (page.getPagination().getNextCursor() != null) {
+            page = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                    hbEquals("books.deleted", "false").sortedBy("name").limit(2).after(page.getPagination().getNextCursor()).fields("name"));
+            rows(page).forEach(row -> names.add(row.get("name")));
+        }
+
+        var expected = authorHiperBootRepository.hiperBootPageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(10)).getContent().stream().map(Author::getName).toList();
+        assertThat(names).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void shouldRejectFieldsThatAreNotColumns() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootFieldsFilter(Book.class, hbEquals("author.id", "4").fields("author")))
+                .hasMessageContaining("is not a single column");
+        assertThatThrownBy(() -> authorHiperBootRepository.hiperBootFieldsFilter(Author.class, hbEquals("id", "4").fields("books.title")))
+                .hasMessageContaining("is not a single column");
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootFieldsFilter(Book.class, hbEquals("author.id", "4").fields("isbn")))
+                .hasMessageContaining("Unknown field isbn");
+    }
+
+    private static List<Map<?, ?>> rows(BasePage page) {
+        return ((List<?>) page.getData()).stream().<Map<?, ?>>map(row -> (Map<?, ?>) row).toList();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.service.HiperBootService;
+
+import jakarta.persistence.EntityManager;
+
+class PublisherTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldEmitAllRowsAndComplete() throws InterruptedException {
+        var subscriber = new TestSubscriber(Long.MAX_VALUE);
+        bookHiperBootRepository.hiperBootFilterPublisher(Book.class, hbEquals("author.id", "4").sortedBy("title")).subscribe(subscriber);
+
+        assertThat(subscriber.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.error).isNull();
+        assertThat(subscriber.titles).hasSize(10).isSorted();
+    }
+
+    @Test
+    void shouldOnlyEmitRequestedRows() throws InterruptedException {
+        var subscriber = new TestSubscriber(3);
+        bookHiperBootRepository.hiperBootFilterPublisher(Book.class, hbEquals("author.id", "4")).subscribe(subscriber);
+
+        assertThat(subscriber.received.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(subscriber.titles).hasSize(3);
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    void shouldReleaseConnectionsOnCancel() throws InterruptedException {
+        for (int i = 0; i < 30; i++) {
+            var cancelled = new TestSubscriber(1);
+            bookHiperBootRepository.hiperBootFilterPublisher(Book.class, hbEquals("author.id", "4")).subscribe(cancelled);
+            assertThat(cancelled.received.await(10, TimeUnit.SECONDS)).isTrue();
+            cancelled.subscription.cancel();
+        }
+
+        var subscriber = new TestSubscriber(Long.MAX_VALUE);
+        bookHiperBootRepository.hiperBootFilterPublisher(Book.class, hbEquals("author.id", "4")).subscribe(subscriber);
+        assertThat(subscriber.done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.titles).hasSize(10);
+    }
+
+    @Test
+    void shouldSignalErrorWhenWorkerIsInterrupted() throws InterruptedException {
+        var worker = new AtomicReference<Thread>();
+        var service = new HiperBootService<>(bookHiperBootRepository, entityManager);
+        service.setExecutor(command -> {
+            worker.set(new Thread(command));
+            worker.get().start();
+        });
+        var subscriber = new TestSubscriber(1);
+        service.hiperBootFilterPublisher(Book.class, hbEquals("author.id", "4")).subscribe(subscriber);
+        assertThat(subscriber.received.await(10, TimeUnit.SECONDS)).isTrue();
+
+        worker.get().interrupt();
+
+        assertThat(subscriber.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.error).hasMessageContaining("interrupted");
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Book> {
+        private final long request;
+        private final List<String> titles = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        TestSubscriber(long request) {
+            this.request = request;
+            this.received = new CountDownLatch((int) Math.min(request, 10));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(request);
+        }
+
+        @Override
+        public void onNext(Book book) {
+            titles.add(book.getTitle());
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+
+import jakarta.persistence.EntityManager;
+
+@Transactional
+class StreamTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldStreamRowsInSortOrder() {
+        var expected = bookHiperBootRepository.hiperBootPageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").limit(100)).getContent().stream().map(Book::getTitle).toList();
+
+        try (var books = bookHiperBootRepository.hiperBootStream(Book.class, hbEquals("author.id", "4").sortedBy("title"), 3)) {
+            assertThat(books.map(Book::getTitle).toList()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldEvictStreamedEntities() {
+        entityManager.clear();
+        List<Book> seen = new ArrayList<>();
+        try (var books = bookHiperBootRepository.hiperBootStream(Book.class, hbEquals("author.id", "4"))) {
+            books.forEach(seen::add);
+        }
+
+        assertThat(seen).hasSize(10);
+        assertThat(seen.subList(0, 9)).noneMatch(entityManager::contains);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRequireTransaction() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootStream(Book.class, hbEquals("author.id", "4")))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.db.repository.hiperboot.operations;
+
+import static com.hiperboot.util.HBUtils.greaterThan;
+import static com.hiperboot.util.HBUtils.hbAnd;
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static com.hiperboot.util.HBUtils.hbIsNull;
+import static com.hiperboot.util.HBUtils.hbOr;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+
+class LogicalGroupsTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Test
+    void shouldReturnRowsMatchingAnyBranchOfOr() {
+        var list = bookHiperBootRepository.hiperBootFilter(Book.class, hbOr(hbEquals("author.id", "1"), hbEquals("author.id", "2")));
+
+        assertThat(list).hasSize(7);
+        assertThat(list).allMatch(book -> List.of(1L, 2L).contains(book.getAuthor().getId()));
+    }
+
+    @Test
+    void shouldCombineNestedAndInsideOr() {
+        var list = bookHiperBootRepository.hiperBootFilter(Book.class,
+                hbOr(hbEquals("author.id", "1"), hbAnd(hbEquals("author.id", "2"), greaterThan("price", "13"))));
+
+        assertThat(list).extracting(Book::getTitle).containsExactlyInAnyOrder(
+                "Harry Potter and the Sorcerer's Stone",
+                "Harry Potter and the Chamber of Secrets",
+                "The Last Days of Oceania",
+                "Big Brother's Return");
+    }
+
+    @Test
+    void shouldAcceptOrAsFilterObject() {
+        var list = bookHiperBootRepository.hiperBootFilter(Book.class,
+                Map.of("_or", hbAnd(hbEquals("title", "1984 Redux"), hbIsNull("price"))));
+
+        assertThat(list).extracting(Book::getTitle).containsExactlyInAnyOrder("1984 Redux", "Letters from Nevada");
+    }
+
+    @Test
+    void shouldNegateWholeGroup() {
+        var list = bookHiperBootRepository.hiperBootFilter(Book.class,
+                Map.of("_not", hbAnd(hbEquals("author.id", "2"), hbEquals("deleted", "false"))));
+
+        assertThat(list).hasSize(29);
+        assertThat(list).noneMatch(book -> book.getAuthor().getId() == 2L && !book.getDeleted());
+    }
+}
@@ -18,22 +18,44 @@ package com.hiperboot.pagination;
 import static com.hiperboot.util.HBUtils.hbEquals;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.hiperboot.BaseTestClass;
 import com.hiperboot.db.domain.BasePage;
+import com.hiperboot.db.domain.LazyPagination;
 import com.hiperboot.db.domain.Pagination;
+import com.hiperboot.db.domain.PaginationImpl;
+import com.hiperboot.db.repository.ConcurrentCountExecutor;
+import com.hiperboot.data_simulation.entity.book.Author;
 import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
 import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.pagination.count.ExactCountStrategy;
+import com.hiperboot.service.HiperBootService;
+
+import jakarta.persistence.EntityManager;
 
 class BasePageTest extends BaseTestClass {
 
     @Autowired
     private BookHiperBootRepository bookHiperBootRepository;
 
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void pageBaseTest() {
         BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
@@ -65,4 +87,147 @@ class BasePageTest extends BaseTestClass {
         assertThat(pagination.getPageSize()).isEqualTo(2);
         assertThat(pagination.getTotalRows()).isEqualTo(8);
     }
+
+    @Test
+    void pageBaseWithoutCountTest() {
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "3").sortedBy("title, published").offset(6).limit(2).count(false));
+        Pagination pagination = pageTest.getPagination();
+
+        assertThat(data(pageTest)).hasSize(2);
+        assertThat(pagination.getCurrentPage()).isEqualTo(4);
+        assertThat(pagination.getPageSize()).isEqualTo(2);
+        assertThat(pagination.getTotalPages()).isNull();
+        assertThat(pagination.getTotalRows()).isNull();
+        assertThat(((PaginationImpl) pagination).hasNext()).isFalse();
+    }
+
+    @Test
+    void sliceFilterTest() {
+        Slice<Book> slice = bookHiperBootRepository.hiperBootSliceFilter(Book.class,
+                hbEquals("author.id", "3").sortedBy("title, published").offset(3).limit(2));
+
+        assertThat(slice.getContent()).hasSize(2);
+        assertThat(slice.hasNext()).isTrue();
+
+        Slice<Book> lastSlice = bookHiperBootRepository.hiperBootSliceFilter(Book.class,
+                hbEquals("author.id", "3").sortedBy("title, published").offset(6).limit(5));
+
+        assertThat(lastSlice.getContent()).hasSize(2);
+        assertThat(lastSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    void pageBaseCappedCountTest() {
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(2).count("capped").countLimit(3));
+        Pagination pagination = pageTest.getPagination();
+
+        assertThat(data(pageTest)).hasSize(2);
+        assertThat(pagination.getTotalRows()).isEqualTo(4);
+        assertThat(pagination.getTotalExact()).isFalse();
+
+        BasePage belowCap = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(2).count("capped").countLimit(50));
+
+        assertThat(belowCap.getPagination().getTotalRows()).isEqualTo(10);
+        assertThat(belowCap.getPagination().getTotalExact()).isTrue();
+    }
+
+    @Test
+    void pageBaseLazyTotalsTest() {
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(2));
+        LazyPagination pagination = (LazyPagination) pageTest.getPagination();
+
+        assertThat(data(pageTest)).hasSize(2);
+        assertThat(pagination.hasComputedTotals()).isFalse();
+        assertThat(pagination.getTotalRows()).isEqualTo(10);
+        assertThat(pagination.getTotalPages()).isEqualTo(5);
+        assertThat(pagination.hasComputedTotals()).isTrue();
+    }
+
+    @Test
+    void pageBaseTotalsDisabledTest() {
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(2).totals(false));
+
+        assertThat(data(pageTest)).hasSize(2);
+        assertThat(pageTest.getPagination().getTotalRows()).isNull();
+        assertThat(pageTest.getPagination().getTotalPages()).isNull();
+    }
+
+    @Test
+    void pageBaseWindowCountTest() {
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(2).limit(2).count("window"));
+
+        assertThat(data(pageTest)).hasSize(2);
+        assertThat(pageTest.getPagination().getTotalRows()).isEqualTo(10);
+
+        BasePage pastTheEnd = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(20).limit(2).count("window"));
+
+        assertThat(data(pastTheEnd)).isEmpty();
+        assertThat(pastTheEnd.getPagination().getTotalRows()).isEqualTo(10);
+    }
+
+    @Test
+    void pageBaseConcurrentCountTest() {
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(2).limit(2).concurrent(true));
+        BasePage expected = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(2).limit(2));
+
+        assertThat(data(pageTest)).extracting("title").isEqualTo(
+                data(expected).stream().map(book -> ((Book) book).getTitle()).toList());
+        assertThat(pageTest.getPagination().getTotalRows()).isEqualTo(10);
+        assertThat(pageTest.getPagination().getTotalExact()).isTrue();
+    }
+
+    @Test
+    void pageConcurrentCountFallsBackToSequentialTest() {
+        var executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        var service = new HiperBootService<>(bookHiperBootRepository, entityManager);
+        service.setConcurrentCountExecutor(new ConcurrentCountExecutor(executor, 1, Duration.ofSeconds(5)));
+
+        var page = service.hiperBootConcurrentPageFilter(Book.class, hbEquals("author.id", "4"),
+                PageRequestBuilder.getPageRequest(0, 2), new ExactCountStrategy());
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    void pageBaseCappedCountOnFetchedCollectionTest() {
+        BasePage pageTest = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(2).count("capped").countLimit(100));
+
+        assertThat(pageTest.getPagination().getTotalExact()).isTrue();
+        assertThat(pageTest.getPagination().getTotalRows()).isEqualTo(5);
+
+        BasePage aboveCap = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(2).count("capped").countLimit(3));
+
+        assertThat(aboveCap.getPagination().getTotalExact()).isFalse();
+        assertThat(aboveCap.getPagination().getTotalRows()).isEqualTo(4);
+    }
+
+    @Test
+    void pageBaseEstimatedCountTest() {
+        jdbcTemplate.execute("analyze book");
+        Long bookRows = jdbcTemplate.queryForObject("select cast(reltuples as bigint) from pg_class where oid = to_regclass('book')", Long.class);
+
+        BasePage pageTest = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").offset(0).limit(2).count("estimated"));
+        Pagination pagination = pageTest.getPagination();
+
+        assertThat(pagination.getTotalExact()).isFalse();
+        assertThat(pagination.getTotalRows()).isBetween(1L, bookRows);
+    }
+
+    private static List<?> data(BasePage page) {
+        return page.getData();
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Book;
+import com.hiperboot.data_simulation.repository.hiperboot.book.BookHiperBootRepository;
+import com.hiperboot.db.domain.BasePage;
+import com.hiperboot.exception.HiperBootException;
+
+class KeysetPaginationTest extends BaseTestClass {
+
+    @Autowired
+    private BookHiperBootRepository bookHiperBootRepository;
+
+    @Test
+    void shouldWalkForwardAndBackwardWithCursors() {
+        List<Book> expected = bookHiperBootRepository.hiperBootPageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("-published, title, id")).getContent();
+
+        List<Long> forward = new ArrayList<>();
+        BasePage page = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("-published, title").limit(3).after(null));
+        assertThat(page.getPagination().getPreviousCursor()).isNull();
+        assertThat(page.getPagination().getTotalRows()).isNull();
+        forward.addAll(ids(page));
+
+        while (page.getPagination().getNextCursor() != null) {
+            page = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                    hbEquals("author.id", "4").sortedBy("-published, title").limit(3).after(page.getPagination().getNextCursor()));
+            forward.addAll(ids(page));
+        }
+
+        assertThat(forward).isEqualTo(expected.stream().map(Book::getId).toList());
+        assertThat(ids(page)).hasSize(1);
+
+        BasePage previous = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("-published, title").limit(3).before(page.getPagination().getPreviousCursor()));
+        assertThat(ids(previous)).isEqualTo(forward.subList(6, 9));
+        assertThat(previous.getPagination().getNextCursor()).isNotNull();
+        assertThat(previous.getPagination().getPreviousCursor()).isNotNull();
+    }
+
+    @Test
+    void shouldWalkCursorsOverDecimalAndBooleanSort() {
+        List<Book> expected = bookHiperBootRepository.hiperBootPageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("deleted, -price, id")).getContent();
+
+        List<Long> forward = new ArrayList<>();
+        BasePage page = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("deleted, -price").limit(4).after(null));
+        forward.addAll(ids(page));
+        while (page.getPagination().getNextCursor() != null) {
+            page = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                    hbEquals("author.id", "4").sortedBy("deleted, -price").limit(4).after(page.getPagination().getNextCursor()));
+            forward.addAll(ids(page));
+        }
+
+        assertThat(forward).isEqualTo(expected.stream().map(Book::getId).toList());
+    }
+
+    @Test
+    void shouldRejectCursorFromDifferentSort() {
+        BasePage page = bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("title").limit(3).after(null));
+        var cursor = page.getPagination().getNextCursor();
+
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").sortedBy("-title").limit(3).after(cursor)))
+                .isInstanceOf(HiperBootException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> bookHiperBootRepository.hiperBootBasePageFilter(Book.class,
+                hbEquals("author.id", "4").limit(3).after("not-a-cursor")))
+                .isInstanceOf(HiperBootException.class);
+    }
+
+    private static List<Long> ids(BasePage page) {
+        return ((List<?>) page.getData()).stream().map(Book.class::cast).map(Book::getId).toList();
+    }
+}
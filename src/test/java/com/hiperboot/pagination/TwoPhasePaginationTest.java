@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2024 by Sannon Gualda de Aragão.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hiperboot.pagination;
+
+import static com.hiperboot.util.HBUtils.hbEquals;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hiperboot.BaseTestClass;
+import com.hiperboot.data_simulation.entity.book.Author;
+import com.hiperboot.data_simulation.repository.hiperboot.author.AuthorHiperBootRepository;
+import com.hiperboot.db.domain.BasePage;
+
+@Transactional
+class TwoPhasePaginationTest extends BaseTestClass {
+
+    @Autowired
+    private AuthorHiperBootRepository authorHiperBootRepository;
+
+    @Test
+    void shouldPaginateDistinctRootsWhenFetchingCollection() {
+        var firstPage = authorHiperBootRepository.hiperBootPageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(2));
+
+        assertThat(firstPage.getContent()).extracting(Author::getId).containsExactly(2L, 1L);
+        assertThat(firstPage.getTotalElements()).isEqualTo(5);
+        assertThat(firstPage.getTotalPages()).isEqualTo(3);
+
+        var lastPage = authorHiperBootRepository.hiperBootPageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(4).limit(2));
+
+        assertThat(lastPage.getContent()).extracting(Author::getId).containsExactly(4L);
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldReadWindowTotalOfDistinctRootsWhenFetchingCollection() {
+        BasePage page = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(2).count("window"));
+
+        assertThat(ids(page)).containsExactly(2L, 1L);
+        assertThat(page.getPagination().getTotalRows()).isEqualTo(5);
+
+        BasePage pastTheEnd = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(10).limit(2).count("window"));
+
+        assertThat(ids(pastTheEnd)).isEmpty();
+        assertThat(pastTheEnd.getPagination().getTotalRows()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldKeepFetchedCollectionsOfSinglePhaseQuery() {
+        Map<Long, Integer> expected = authorHiperBootRepository.hiperBootFilter(Author.class, hbEquals("books.deleted", "false"))
+                .stream().collect(Collectors.toMap(Author::getId, author -> author.getBooks().size()));
+
+        var page = authorHiperBootRepository.hiperBootPageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").offset(0).limit(10));
+
+        assertThat(page.getContent().stream().collect(Collectors.toMap(Author::getId, author -> author.getBooks().size())))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void shouldWalkKeysetPagesWhenFetchingCollection() {
+        List<Long> authorIds = new ArrayList<>();
+        BasePage page = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                hbEquals("books.deleted", "false").sortedBy("name").limit(2).after(null));
+        authorIds.addAll(ids(page));
+
+        while (page.getPagination().getNextCursor() != null) {
+            page = authorHiperBootRepository.hiperBootBasePageFilter(Author.class,
+                    hbEquals("books.deleted", "false").sortedBy("name").limit(2).after(page.getPagination().getNextCursor()));
+            authorIds.addAll(ids(page));
+        }
+
+        assertThat(authorIds).containsExactly(2L, 1L, 3L, 5L, 4L);
+    }
+
+    private static List<Long> ids(BasePage page) {
+        return ((List<?>) page.getData()).stream().map(Author.class::cast).map(Author::getId).toList();
+    }
+}